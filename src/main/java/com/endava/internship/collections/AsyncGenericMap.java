@@ -0,0 +1,129 @@
+package com.endava.internship.collections;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Asynchronous, thread-safe facade over a {@link GenericMap}.
+ * Callers only enqueue requests; whichever caller wins the combiner role applies the queued requests
+ * in batches on its own thread (flat combining), so the map is only ever touched by one thread at a time
+ * and no caller parks on a monitor. This keeps it usable from virtual threads, which pin their carrier
+ * while blocked in {@code synchronized}. The futures of a batch are completed only after the combiner role
+ * is released, so their dependent stages may submit further requests and wait for them.
+ */
+public class AsyncGenericMap<K, V> {
+    private static final int MAX_BATCH_SIZE = 256;
+
+    private enum Operation {
+        GET,
+        PUT,
+        REMOVE
+    }
+
+    private static final class Request<K, V> {
+        private final Operation operation;
+        private final K key;
+        private final V value;
+        private final CompletableFuture<V> result = new CompletableFuture<>();
+        private V outcome;
+        private RuntimeException failure;
+
+        private Request(Operation operation, K key, V value) {
+            this.operation = operation;
+            this.key = key;
+            this.value = value;
+        }
+
+        private void complete() {
+            if (failure != null){
+                result.completeExceptionally(failure);
+            } else {
+                result.complete(outcome);
+            }
+        }
+    }
+
+    private final GenericMap<K, V> map;
+    private final ConcurrentLinkedQueue<Request<K, V>> pending = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean combining = new AtomicBoolean();
+
+    public AsyncGenericMap() {
+        this(new GenericMap<>());
+    }
+
+    /**
+     * @param map the map to operate on; it must not be used directly while this facade is in use
+     */
+    public AsyncGenericMap(GenericMap<K, V> map) {
+        if (map == null){
+            throw new IllegalArgumentException("Map must not be null");
+        }
+        this.map = map;
+    }
+
+    public CompletableFuture<V> getAsync(K key) {
+        return submit(new Request<>(Operation.GET, key, null));
+    }
+
+    public CompletableFuture<V> putAsync(K key, V value) {
+        return submit(new Request<>(Operation.PUT, key, value));
+    }
+
+    public CompletableFuture<V> removeAsync(K key) {
+        return submit(new Request<>(Operation.REMOVE, key, null));
+    }
+
+    private CompletableFuture<V> submit(Request<K, V> request) {
+        pending.offer(request);
+        combine();
+        return request.result;
+    }
+
+    /**
+     * Applies queued requests in batches while this thread holds the combiner role, completing
+     * the futures of each batch once the role is released. The queue is checked again after every batch,
+     * so a request enqueued during the release is never stranded.
+     */
+    private void combine() {
+        List<Request<K, V>> batch = null;
+        while (!pending.isEmpty() && combining.compareAndSet(false, true)){
+            if (batch == null){
+                batch = new ArrayList<>();
+            }
+            try {
+                Request<K, V> request;
+                while (batch.size() < MAX_BATCH_SIZE && (request = pending.poll()) != null){
+                    apply(request);
+                    batch.add(request);
+                }
+            } finally {
+                combining.set(false);
+            }
+            for (Request<K, V> request : batch) {
+                request.complete();
+            }
+            batch.clear();
+        }
+    }
+
+    private void apply(Request<K, V> request) {
+        try {
+            switch (request.operation){
+                case GET:
+                    request.outcome = map.get(request.key);
+                    break;
+                case PUT:
+                    request.outcome = map.put(request.key, request.value);
+                    break;
+                default:
+                    request.outcome = map.remove(request.key);
+                    break;
+            }
+        } catch (RuntimeException e) {
+            request.failure = e;
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package com.endava.internship.collections;
+
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Bounded ring buffer of the mutations made to a {@link GenericMap}, for consumers that keep
+ * derived views up to date incrementally. Events are stored in parallel arrays, so publishing
+ * allocates nothing, and they are handed out in batches through {@link #poll(ChangeHandler, int)}.
+ * <p>
+ * One thread publishes (the map's writer) and one thread consumes. A writer that finds the buffer
+ * full waits for the consumer, so the consumer must not be the writing thread unless it drains
+ * the feed before the buffer fills up.
+ */
+public final class ChangeFeed<K, V> {
+
+    public enum ChangeType {
+        /**
+         * A new key was inserted; the old value is {@code null}.
+         */
+        PUT,
+        /**
+         * The value of an existing key was replaced.
+         */
+        REWRITE,
+        /**
+         * A key was removed; the new value is {@code null}.
+         */
+        REMOVE,
+        /**
+         * Every entry was removed; key and values are {@code null}.
+         */
+        CLEAR
+    }
+
+    public interface ChangeHandler<K, V> {
+        void onChange(ChangeType type, K key, V oldValue, V newValue);
+    }
+
+    private static final long FULL_BUFFER_PARK_NANOS = 10_000;
+
+    private final int mask;
+    private final ChangeType[] types;
+    private final Object[] keys;
+    private final Object[] oldValues;
+    private final Object[] newValues;
+    private volatile long published;
+    private volatile long consumed;
+
+    /**
+     * @param capacity number of events the buffer can hold, rounded up to a power of two
+     */
+    public ChangeFeed(int capacity) {
+        if (capacity <= 0 || capacity > 1 << 30){
+            throw new IllegalArgumentException("Illegal capacity: " + capacity);
+        }
+        int length = Integer.highestOneBit(capacity);
+        if (length < capacity){
+            length <<= 1;
+        }
+        mask = length - 1;
+        types = new ChangeType[length];
+        keys = new Object[length];
+        oldValues = new Object[length];
+        newValues = new Object[length];
+    }
+
+    public int capacity() {
+        return types.length;
+    }
+
+    /**
+     * @return number of events published but not consumed yet
+     */
+    public int pending() {
+        return (int) (published - consumed);
+    }
+
+    void publish(ChangeType type, K key, V oldValue, V newValue) {
+        long sequence = published;
+        while (sequence - consumed >= types.length){
+            LockSupport.parkNanos(FULL_BUFFER_PARK_NANOS);
+        }
+        int slot = (int) sequence & mask;
+        types[slot] = type;
+        keys[slot] = key;
+        oldValues[slot] = oldValue;
+        newValues[slot] = newValue;
+        published = sequence + 1;
+    }
+
+    /**
+     * Hands up to {@code maxBatchSize} events to the handler, oldest first.
+     * @return number of events handed out
+     */
+    @SuppressWarnings("unchecked")
+    public int poll(ChangeHandler<? super K, ? super V> handler, int maxBatchSize) {
+        long sequence = consumed;
+        int available = (int) Math.min(published - sequence, maxBatchSize);
+        int handled = 0;
+        try {
+            while (handled < available){
+                int slot = (int) (sequence + handled) & mask;
+                ChangeType type = types[slot];
+                K key = (K) keys[slot];
+                V oldValue = (V) oldValues[slot];
+                V newValue = (V) newValues[slot];
+                keys[slot] = null;
+                oldValues[slot] = null;
+                newValues[slot] = null;
+                ++handled;
+                handler.onChange(type, key, oldValue, newValue);
+            }
+        } finally {
+            consumed = sequence + handled;
+        }
+        return available;
+    }
+}
@@ -0,0 +1,455 @@
+package com.endava.internship.collections;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+import java.io.Serializable;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.BiFunction;
+
+/**
+ * A {@link GenericMap} whose mutations survive a process crash.
+ * Every {@code put}, {@code remove} and {@code clear} is appended to a write-ahead log before it is applied;
+ * on open the map is rebuilt from the last snapshot plus the log segments written after it.
+ * Once the log grows past the compaction threshold a snapshot is written in the background
+ * and the segments it covers are deleted. Keys and values are expected not to change once put.
+ */
+public class DurableGenericMap<K, V> implements Map<K, V>, Closeable {
+    public static final long DEFAULT_COMPACTION_THRESHOLD_BYTES = 64L * 1024 * 1024;
+    public static final int DEFAULT_GROUP_COMMIT_SIZE = 128;
+    public static final long DEFAULT_GROUP_COMMIT_MILLIS = 10;
+
+    private static final String SNAPSHOT_FILE = "snapshot";
+    private static final String SNAPSHOT_TEMP_FILE = "snapshot.tmp";
+    private static final int SNAPSHOT_MAGIC = 0x474D5350;
+
+    /**
+     * Converts keys and values to the bytes stored in the log and snapshots.
+     */
+    public interface Codec<T> {
+        byte[] encode(T value) throws IOException;
+
+        T decode(byte[] bytes) throws IOException;
+
+        static <T extends Serializable> Codec<T> serializable() {
+            return new Codec<T>() {
+                @Override
+                public byte[] encode(T value) throws IOException {
+                    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+                    try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+                        out.writeObject(value);
+                    }
+                    return bytes.toByteArray();
+                }
+
+                @Override
+                @SuppressWarnings("unchecked")
+                public T decode(byte[] bytes) throws IOException {
+                    try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes))) {
+                        return (T) in.readObject();
+                    } catch (ClassNotFoundException e) {
+                        throw new IOException("Cannot decode logged object", e);
+                    }
+                }
+            };
+        }
+
+        static Codec<String> utf8() {
+            return new Codec<String>() {
+                @Override
+                public byte[] encode(String value) {
+                    return value.getBytes(StandardCharsets.UTF_8);
+                }
+
+                @Override
+                public String decode(byte[] bytes) {
+                    return new String(bytes, StandardCharsets.UTF_8);
+                }
+            };
+        }
+    }
+
+    private final GenericMap<K, V> map = new GenericMap<>();
+    private final Path directory;
+    private final Codec<K> keyCodec;
+    private final Codec<V> valueCodec;
+    private final long compactionThresholdBytes;
+    private final ExecutorService compactor;
+    private final WriteAheadLog log;
+    private Future<?> compaction;
+    private IOException compactionFailure;
+
+    private DurableGenericMap(Path directory, Codec<K> keyCodec, Codec<V> valueCodec, FsyncPolicy fsyncPolicy,
+                              long compactionThresholdBytes) throws IOException {
+        this.directory = directory;
+        this.keyCodec = keyCodec;
+        this.valueCodec = valueCodec;
+        this.compactionThresholdBytes = compactionThresholdBytes;
+
+        long lastSegment = recover();
+        this.log = new WriteAheadLog(directory, lastSegment + 1, fsyncPolicy,
+                DEFAULT_GROUP_COMMIT_SIZE, DEFAULT_GROUP_COMMIT_MILLIS);
+        this.compactor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "durable-generic-map-compactor");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public static <K, V> DurableGenericMap<K, V> open(Path directory, Codec<K> keyCodec, Codec<V> valueCodec,
+                                                      FsyncPolicy fsyncPolicy) throws IOException {
+        return open(directory, keyCodec, valueCodec, fsyncPolicy, DEFAULT_COMPACTION_THRESHOLD_BYTES);
+    }
+
+    public static <K, V> DurableGenericMap<K, V> open(Path directory, Codec<K> keyCodec, Codec<V> valueCodec,
+                                                      FsyncPolicy fsyncPolicy, long compactionThresholdBytes)
+            throws IOException {
+        if (fsyncPolicy == null){
+            throw new IllegalArgumentException("Fsync policy must not be null");
+        }
+        if (compactionThresholdBytes <= 0){
+            throw new IllegalArgumentException("Illegal compaction threshold: " + compactionThresholdBytes);
+        }
+        Files.createDirectories(directory);
+        return new DurableGenericMap<>(directory, keyCodec, valueCodec, fsyncPolicy, compactionThresholdBytes);
+    }
+
+    @Override
+    public int size() {
+        return map.size();
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return map.isEmpty();
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return map.containsKey(key);
+    }
+
+    @Override
+    public boolean containsValue(Object value) {
+        return map.containsValue(value);
+    }
+
+    @Override
+    public V get(Object key) {
+        return map.get(key);
+    }
+
+    @Override
+    public V put(K key, V value) {
+        compactIfLogIsLarge();
+        append(WriteAheadLog.PUT, encode(keyCodec, key), encode(valueCodec, value));
+        return map.put(key, value);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public V remove(Object key) {
+        if (!map.containsKey(key)){
+            return null;
+        }
+        compactIfLogIsLarge();
+        append(WriteAheadLog.REMOVE, encode(keyCodec, (K) key), null);
+        return map.remove(key);
+    }
+
+    @Override
+    public void putAll(Map<? extends K, ? extends V> map) {
+        for (Map.Entry<? extends K, ? extends V> entry : map.entrySet()) {
+            put(entry.getKey(), entry.getValue());
+        }
+    }
+
+    /**
+     * Logs and applies the new value of every entry in turn, as {@code put} does.
+     */
+    @Override
+    public void replaceAll(BiFunction<? super K, ? super V, ? extends V> function) {
+        Objects.requireNonNull(function);
+        compactIfLogIsLarge();
+        for (Map.Entry<K, V> entry : map.entrySet()) {
+            V value = function.apply(entry.getKey(), entry.getValue());
+            append(WriteAheadLog.PUT, encode(keyCodec, entry.getKey()), encode(valueCodec, value));
+            entry.setValue(value);
+        }
+    }
+
+    @Override
+    public void clear() {
+        compactIfLogIsLarge();
+        append(WriteAheadLog.CLEAR, null, null);
+        map.clear();
+    }
+
+    @Override
+    public Set<K> keySet() {
+        return Collections.unmodifiableSet(map.keySet());
+    }
+
+    @Override
+    public Collection<V> values() {
+        return Collections.unmodifiableCollection(map.values());
+    }
+
+    @Override
+    public Set<Map.Entry<K, V>> entrySet() {
+        return Collections.unmodifiableSet(map.entrySet());
+    }
+
+    /**
+     * Forces every logged mutation to disk, whatever the fsync policy.
+     */
+    public void sync() {
+        try {
+            log.sync();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Seals the current log segment and writes a snapshot covering it in the background.
+     * The sealed segments are deleted once the snapshot is on disk.
+     *
+     * @throws UncheckedIOException if an earlier compaction failed
+     */
+    public void compact() {
+        awaitCompaction();
+        startCompaction();
+    }
+
+    /**
+     * Waits for a running compaction to finish.
+     *
+     * @throws UncheckedIOException if this or an earlier background compaction failed
+     */
+    public void awaitCompaction() {
+        collectCompaction(true);
+        IOException failure = compactionFailure;
+        if (failure != null){
+            compactionFailure = null;
+            throw new UncheckedIOException(failure);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            awaitCompaction();
+        } finally {
+            compactor.shutdown();
+            log.close();
+        }
+    }
+
+    private void startCompaction() {
+        long sealedSegment;
+        try {
+            sealedSegment = log.roll();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        int entryCount = map.size();
+        Object[] keys = new Object[entryCount];
+        Object[] values = new Object[entryCount];
+        int i = 0;
+        for (Map.Entry<K, V> entry : map.entrySet()) {
+            keys[i] = entry.getKey();
+            values[i++] = entry.getValue();
+        }
+        compaction = compactor.submit(() -> {
+            writeSnapshot(sealedSegment, keys, values);
+            log.deleteSegmentsUpTo(sealedSegment);
+            return null;
+        });
+    }
+
+    /**
+     * Forgets a finished compaction, keeping its failure to be reported by the next {@code compact} or {@code close}.
+     */
+    private void collectCompaction(boolean wait) {
+        if (compaction == null || !wait && !compaction.isDone()){
+            return;
+        }
+        try {
+            compaction.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for compaction", e);
+        } catch (ExecutionException e) {
+            if (compactionFailure == null){
+                compactionFailure = new IOException("Compaction failed", e.getCause());
+            }
+        }
+        compaction = null;
+    }
+
+    private void append(byte type, byte[] key, byte[] value) {
+        try {
+            log.append(type, key, value);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Starts a compaction before a mutation is logged, so a failure to seal the segment leaves the map untouched.
+     * A failed background compaction is not rethrown here but by the next {@code compact} or {@code close}.
+     */
+    private void compactIfLogIsLarge() {
+        if (log.segmentBytes() < compactionThresholdBytes){
+            return;
+        }
+        collectCompaction(false);
+        if (compaction == null){
+            startCompaction();
+        }
+    }
+
+    private static <T> byte[] encode(Codec<T> codec, T value) {
+        if (value == null){
+            return null;
+        }
+        try {
+            return codec.encode(value);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static <T> T decode(Codec<T> codec, byte[] bytes) throws IOException {
+        return bytes == null ? null : codec.decode(bytes);
+    }
+
+    /**
+     * Loads the snapshot and replays every newer log segment.
+     * @return the number of the last segment found on disk
+     */
+    private long recover() throws IOException {
+        long lastSegment = readSnapshot();
+        List<Long> segments = WriteAheadLog.segments(directory);
+        IOException[] failure = new IOException[1];
+        for (long segment : segments) {
+            if (segment <= lastSegment){
+                continue;
+            }
+            WriteAheadLog.replay(directory, segment, (type, key, value) -> {
+                try {
+                    applyLogged(type, key, value);
+                } catch (IOException e) {
+                    failure[0] = e;
+                }
+            });
+            if (failure[0] != null){
+                throw failure[0];
+            }
+            lastSegment = segment;
+        }
+        return lastSegment;
+    }
+
+    private void applyLogged(byte type, byte[] key, byte[] value) throws IOException {
+        switch (type){
+            case WriteAheadLog.PUT:
+                map.put(decode(keyCodec, key), decode(valueCodec, value));
+                break;
+            case WriteAheadLog.REMOVE:
+                map.remove(decode(keyCodec, key));
+                break;
+            case WriteAheadLog.CLEAR:
+                map.clear();
+                break;
+            default:
+                throw new IOException("Unknown log record type: " + type);
+        }
+    }
+
+    private long readSnapshot() throws IOException {
+        Path snapshot = directory.resolve(SNAPSHOT_FILE);
+        if (!Files.exists(snapshot)){
+            return 0;
+        }
+        try (InputStream file = Files.newInputStream(snapshot);
+             DataInputStream in = new DataInputStream(new BufferedInputStream(file))) {
+            if (in.readInt() != SNAPSHOT_MAGIC){
+                throw new IOException("Not a map snapshot: " + snapshot);
+            }
+            long lastSegment = in.readLong();
+            int entryCount = in.readInt();
+            for (int i = 0; i < entryCount; ++i){
+                map.put(decode(keyCodec, readBytes(in)), decode(valueCodec, readBytes(in)));
+            }
+            return lastSegment;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void writeSnapshot(long lastSegment, Object[] keys, Object[] values) throws IOException {
+        Path temp = directory.resolve(SNAPSHOT_TEMP_FILE);
+        try (OutputStream file = Files.newOutputStream(temp);
+             DataOutputStream out = new DataOutputStream(new BufferedOutputStream(file))) {
+            out.writeInt(SNAPSHOT_MAGIC);
+            out.writeLong(lastSegment);
+            out.writeInt(keys.length);
+            for (int i = 0; i < keys.length; ++i){
+                writeBytes(out, encode(keyCodec, (K) keys[i]));
+                writeBytes(out, encode(valueCodec, (V) values[i]));
+            }
+        }
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+            channel.force(true);
+        }
+        Files.move(temp, directory.resolve(SNAPSHOT_FILE), StandardCopyOption.ATOMIC_MOVE);
+        //the rename has to be durable before the segments it replaces are deleted
+        WriteAheadLog.syncDirectory(directory);
+    }
+
+    private static void writeBytes(DataOutputStream out, byte[] bytes) throws IOException {
+        if (bytes == null){
+            out.writeInt(-1);
+        } else {
+            out.writeInt(bytes.length);
+            out.write(bytes);
+        }
+    }
+
+    private static byte[] readBytes(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        if (length < 0){
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return bytes;
+    }
+}
@@ -0,0 +1,23 @@
+package com.endava.internship.collections;
+
+/**
+ * When a {@link DurableGenericMap} forces its write-ahead log to disk. Under every policy each mutation
+ * is written to the log before the call returns, so a crash of the process alone loses nothing;
+ * the policy decides what a crash of the machine can lose.
+ */
+public enum FsyncPolicy {
+    /**
+     * Every mutation is forced before the call returns. Nothing acknowledged is ever lost.
+     */
+    EVERY_WRITE,
+    /**
+     * Mutations are forced in groups, once the group is full or, by a background timer, once its oldest
+     * record is too old. A crash of the machine loses at most the last unforced group.
+     */
+    GROUP_COMMIT,
+    /**
+     * The log is only forced on {@code sync}, {@code compact} and {@code close};
+     * the operating system decides when the rest reaches the disk.
+     */
+    OS_DEFAULT
+}
@@ -1,34 +1,73 @@
 package com.endava.internship.collections;
 
-import java.util.AbstractMap;
+import java.util.AbstractSet;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.ConcurrentModificationException;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
 
 public class GenericMap<K, V> implements Map<K, V> {
-    private static final int DEFAULT_INITIAL_CAPACITY = 16;
+    static final int DEFAULT_INITIAL_CAPACITY = 16;
     private static final float DEFAULT_LOAD_FACTOR = 0.75f;
+    private static final int BATCH_GROUP_SIZE = 32;
+    private static final int MAXIMUM_CAPACITY = 1 << 30;
+    private static final int PARALLEL_REHASH_THRESHOLD = 1 << 16;
+    private static final int PARALLEL_SPLIT_SIZE = 1 << 12;
+    private final Hashing<? super K> hashing;
+    private final boolean naturalHashing;
     private GenericMap.Node<K, V>[] buckets;
     private int size = 0;
+    /**
+     * Number of insertions and removals, so iterators can detect a change of structure under them.
+     */
+    private int modCount = 0;
+    private ChangeFeed<K, V> changeFeed;
+    private MembershipFilter membershipFilter;
+    private int expectedFilterEntries;
+    private HotKeyCache<K, V> hotKeyCache;
+    private ForkJoinPool rehashPool;
 
+    /**
+     * A plain node takes 28 bytes with compressed references and is padded to 32, so a specialization
+     * can add one reference or {@code int} field to its nodes without making them any larger.
+     */
     static class Node<K, V> {
+        private final int hash;
         private final K key;
         private V value;
         private GenericMap.Node<K, V> next;
 
-        public Node(K key, V value) {
-            this(key,  value, null);
+        public Node(int hash, K key, V value) {
+            this(hash, key,  value, null);
         }
 
-        public Node(K key, V value, GenericMap.Node<K, V> next) {
+        public Node(int hash, K key, V value, GenericMap.Node<K, V> next) {
+            this.hash = hash;
             this.key = key;
             this.value = value;
             this.next = next;
         }
 
+        /**
+         * @return the spread hash of the key, computed once when the node was created
+         */
+        public int getHash() {
+            return hash;
+        }
+
         public K getKey() {
             return key;
         }
@@ -55,19 +94,71 @@ public class GenericMap<K, V> implements Map<K, V> {
     }
 
     public GenericMap(int initialCapacity){
+        this(initialCapacity, Hashing.natural());
+    }
+
+    public GenericMap(Hashing<? super K> hashing) {
+        this(DEFAULT_INITIAL_CAPACITY, hashing);
+    }
+
+    public GenericMap(int initialCapacity, Hashing<? super K> hashing){
         if (initialCapacity < 0){
             throw new IllegalArgumentException("Illegal initial capacity: " + initialCapacity);
         }
+        if (hashing == null){
+            throw new IllegalArgumentException("Hashing strategy must not be null");
+        }
+        this.hashing = hashing;
+        this.naturalHashing = hashing == Hashing.Natural.INSTANCE;
 
-        if (initialCapacity < DEFAULT_INITIAL_CAPACITY){
-            buckets = createBucketArray(DEFAULT_INITIAL_CAPACITY);
-        } else {
-            buckets = createBucketArray(initialCapacity);
+        buckets = createBucketArray(tableSizeFor(initialCapacity));
+    }
+
+    /**
+     * @return the smallest power of two table length holding the given capacity, but at least the default
+     */
+    private static int tableSizeFor(int capacity){
+        if (capacity <= DEFAULT_INITIAL_CAPACITY){
+            return DEFAULT_INITIAL_CAPACITY;
+        }
+        if (capacity >= MAXIMUM_CAPACITY){
+            return MAXIMUM_CAPACITY;
+        }
+        int powerOfTwo = Integer.highestOneBit(capacity);
+        return powerOfTwo < capacity ? powerOfTwo << 1 : powerOfTwo;
+    }
+
+    /**
+     * The strategy call is shared by every map and turns megamorphic once several strategies are loaded,
+     * so maps with natural hashing call the keys' own methods directly instead.
+     * @return the key's hash with its high bits folded into the low ones, which select the bucket
+     */
+    private int hash(Object key){
+        if (key == null){
+            return 0;
         }
+        int hash = naturalHashing ? key.hashCode() : hashing.hash(key);
+        return hash ^ (hash >>> 16);
+    }
+
+    private int indexFor(int hash){
+        return hash & (buckets.length - 1);
+    }
+
+    private boolean definitelyAbsent(int hash){
+        return membershipFilter != null && !membershipFilter.mightContain(hash);
+    }
+
+    private boolean keyEquals(K storedKey, Object key){
+        return storedKey == key || (storedKey != null && key != null
+                && (naturalHashing ? storedKey.equals(key) : hashing.equals(storedKey, key)));
     }
 
-    private int hashIndex(Object key){
-        return key == null ? 0 : Math.abs(key.hashCode() % buckets.length);
+    /**
+     * Compares the cached hashes first, so keys of other hashes sharing the chain are skipped without {@code equals}.
+     */
+    private boolean matches(GenericMap.Node<K, V> node, Object key, int hash){
+        return node.hash == hash && keyEquals(node.getKey(), key);
     }
 
     @SuppressWarnings("unchecked")
@@ -75,6 +166,111 @@ public class GenericMap<K, V> implements Map<K, V> {
         return (GenericMap.Node<K, V>[]) new GenericMap.Node[length];
     }
 
+    /**
+     * Publishes every later mutation of this map to the given feed, or stops publishing when it is {@code null}.
+     */
+    public void setChangeFeed(ChangeFeed<K, V> changeFeed){
+        this.changeFeed = changeFeed;
+    }
+
+    /**
+     * Puts a counting Bloom filter in front of {@code get} and {@code containsKey}, so most lookups
+     * of absent keys return without touching the table. The filter is kept up to date on every
+     * insertion and removal, and is rebuilt for the larger table whenever the map outgrows it.
+     * @param expectedEntries number of entries the filter is sized for initially
+     * @param falsePositiveRate wanted share of absent keys that still reach the table
+     */
+    public void enableMembershipFilter(int expectedEntries, double falsePositiveRate){
+        MembershipFilter filter = new MembershipFilter(Math.max(expectedEntries, size), falsePositiveRate);
+        expectedFilterEntries = Math.max(expectedEntries, size);
+        for (GenericMap.Node<K, V> currentNode : buckets) {
+            while (currentNode != null){
+                filter.add(currentNode.hash);
+                currentNode = currentNode.next;
+            }
+        }
+        membershipFilter = filter;
+    }
+
+    public void disableMembershipFilter(){
+        membershipFilter = null;
+    }
+
+    /**
+     * Keeps the most frequently read entries in a small direct-mapped array checked before the table,
+     * for read workloads dominated by a few hot keys.
+     * @param slots number of entries the front array can hold, rounded up to a power of two
+     */
+    public void enableHotKeyCache(int slots){
+        hotKeyCache = new HotKeyCache<>(slots);
+    }
+
+    public void disableHotKeyCache(){
+        hotKeyCache = null;
+    }
+
+    /**
+     * @return the heap held by the table and nodes of this map, from the object layout of the running JVM
+     */
+    public MemoryFootprint memoryFootprint(){
+        ObjectLayout layout = ObjectLayout.CURRENT;
+        long nodeBytes = 0;
+        int emptyBuckets = 0;
+        for (GenericMap.Node<K, V> currentNode : buckets) {
+            if (currentNode == null){
+                ++emptyBuckets;
+            }
+            while (currentNode != null){
+                nodeBytes += layout.instanceSize(currentNode.getClass());
+                currentNode = currentNode.next;
+            }
+        }
+        return new MemoryFootprint(layout.referenceArraySize(buckets.length), nodeBytes, buckets.length, emptyBuckets, size);
+    }
+
+    public long estimatedMemoryBytes(){
+        return memoryFootprint().getTotalBytes();
+    }
+
+    /**
+     * Creates the node holding a newly inserted entry. Specializations override it to change
+     * what is retained for the key.
+     */
+    GenericMap.Node<K, V> newNode(int hash, K key, V value, GenericMap.Node<K, V> next){
+        return new GenericMap.Node<>(hash, key, value, next);
+    }
+
+    /**
+     * @return the node holding the key, or {@code null} if it is absent
+     */
+    GenericMap.Node<K, V> getNode(Object key){
+        return findNode(key, hash(key));
+    }
+
+    int bucketCount(){
+        return buckets.length;
+    }
+
+    /**
+     * @return the first node of the bucket's chain, for specializations walking the chains themselves
+     */
+    GenericMap.Node<K, V> bucketHead(int bucketIndex){
+        return buckets[bucketIndex];
+    }
+
+    int modCount(){
+        return modCount;
+    }
+
+    void forEachNode(Consumer<? super GenericMap.Node<K, V>> action){
+        for (GenericMap.Node<K, V> currentNode : buckets) {
+            while (currentNode != null){
+                action.accept(currentNode);
+                currentNode = currentNode.next;
+            }
+        }
+    }
+
     @Override
     public int size() {
         return size;
@@ -87,15 +283,8 @@ public class GenericMap<K, V> implements Map<K, V> {
 
     @Override
     public boolean containsKey(Object key) {
-        for (GenericMap.Node<K, V> currentNode : buckets) {
-            while (currentNode != null){
-                if (Objects.equals(currentNode.getKey(), key)){
-                    return true;
-                }
-                currentNode = currentNode.next;
-            }
-        }
-        return false;
+        int hash = hash(key);
+        return !definitelyAbsent(hash) && findNode(key, hash) != null;
     }
 
     @Override
@@ -113,15 +302,52 @@ public class GenericMap<K, V> implements Map<K, V> {
 
     @Override
     public V get(Object key) {
-        int bucketIndex = hashIndex(key);
-        return getFromBucket(key, bucketIndex);
+        int hash = hash(key);
+        if (hotKeyCache != null){
+            return getThroughHotKeyCache(key, hash);
+        }
+        if (definitelyAbsent(hash)){
+            return null;
+        }
+        return getFromBucket(key, hash);
     }
 
-    private V getFromBucket(Object key, int bucketIndex){
-        GenericMap.Node<K, V> currentNode = buckets[bucketIndex];
+    private V getThroughHotKeyCache(Object key, int hash){
+        GenericMap.Node<K, V> node = hotKeyCache.lookup(hash);
+        if (node != null && matches(node, key, hash)){
+            hotKeyCache.recordHit(hash);
+            return node.getValue();
+        }
+        if (definitelyAbsent(hash)){
+            return null;
+        }
+        node = findNode(key, hash);
+        if (node == null){
+            return null;
+        }
+        hotKeyCache.recordAccess(node, hash);
+        return node.getValue();
+    }
+
+    /**
+     * @return whether the node of the key currently sits in the hot key cache
+     */
+    boolean isHotKeyCached(Object key){
+        int hash = hash(key);
+        GenericMap.Node<K, V> node = findNode(key, hash);
+        return hotKeyCache != null && node != null && hotKeyCache.lookup(hash) == node;
+    }
+
+    private V getFromBucket(Object key, int hash){
+        GenericMap.Node<K, V> node = findNode(key, hash);
+        return node == null ? null : node.getValue();
+    }
+
+    private GenericMap.Node<K, V> findNode(Object key, int hash){
+        GenericMap.Node<K, V> currentNode = buckets[indexFor(hash)];
         while (currentNode != null){
-            if (Objects.equals(currentNode.getKey(), key)){
-                return currentNode.getValue();
+            if (matches(currentNode, key, hash)){
+                return currentNode;
             }
             currentNode = currentNode.next;
         }
@@ -130,80 +356,184 @@ public class GenericMap<K, V> implements Map<K, V> {
 
     @Override
     public V put(K key, V value) {
-        int bucketIndex = hashIndex(key);
-        return putInBucket(key, value, bucketIndex);
+        return putWithHash(key, value, hash(key));
     }
 
-    private V putInBucket(K key, V value, int bucketIndex){
-        if (bucketIndex < 0 || bucketIndex > buckets.length){
-            throw new IndexOutOfBoundsException("Bucket Index out of bounds: " + bucketIndex);
+    private V putWithHash(K key, V value, int hash){
+        GenericMap.Node<K, V> existingNode = findNode(key, hash);
+        if (existingNode != null){
+            return rewriteEntry(existingNode, value);
         }
 
         if (size + 1 >= buckets.length * DEFAULT_LOAD_FACTOR){
             rehash();
         }
-
-        GenericMap.Node<K, V> newNode = new GenericMap.Node<>(key, value);
-
-        if (buckets[bucketIndex] == null){
-            buckets[bucketIndex] = newNode;
-        }
-        else {
-            GenericMap.Node<K, V> currentNode = buckets[bucketIndex];
-            if (Objects.equals(currentNode.getKey(), key)){
-                return rewriteEntry(currentNode, value);
-            }
-            while (currentNode.next != null){
-                if (Objects.equals(currentNode.getKey(), key)){
-                    return rewriteEntry(currentNode, value);
-                }
-                currentNode = currentNode.next;
-            }
-            currentNode.setNext(newNode);
-        }
+        int bucketIndex = indexFor(hash);
+        buckets[bucketIndex] = newNode(hash, key, value, buckets[bucketIndex]);
         ++size;
+        ++modCount;
+        afterNodeInsertion(buckets[bucketIndex]);
         return null;
     }
 
     private V rewriteEntry(GenericMap.Node<K, V> node, V newValue){
         V oldValue = node.getValue();
         node.setValue(newValue);
+        afterNodeRewrite(node, oldValue);
         return oldValue;
     }
 
+    /**
+     * Called after a new node is linked into the table. Specializations extending it must call this one.
+     */
+    void afterNodeInsertion(GenericMap.Node<K, V> node){
+        if (membershipFilter != null){
+            membershipFilter.add(node.hash);
+        }
+        if (changeFeed != null){
+            changeFeed.publish(ChangeFeed.ChangeType.PUT, node.getKey(), null, node.getValue());
+        }
+    }
+
+    /**
+     * Called after the value of a linked node is replaced. Specializations extending it must call this one.
+     */
+    void afterNodeRewrite(GenericMap.Node<K, V> node, V oldValue){
+        if (changeFeed != null){
+            changeFeed.publish(ChangeFeed.ChangeType.REWRITE, node.getKey(), oldValue, node.getValue());
+        }
+    }
+
+    /**
+     * Doubles the table, relinking the existing nodes into their new buckets.
+     */
     private void rehash(){
+        if (buckets.length >= MAXIMUM_CAPACITY){
+            return;
+        }
         GenericMap.Node<K, V>[] oldBuckets = buckets;
-        size = 0;
-        buckets = createBucketArray(buckets.length * 2);
+        GenericMap.Node<K, V>[] newBuckets = createBucketArray(oldBuckets.length * 2);
+        if (rehashPool != null && oldBuckets.length >= PARALLEL_REHASH_THRESHOLD){
+            rehashPool.invoke(new RangeAction((from, to) -> splitBuckets(oldBuckets, newBuckets, from, to),
+                    0, oldBuckets.length, PARALLEL_SPLIT_SIZE));
+        } else {
+            splitBuckets(oldBuckets, newBuckets, 0, oldBuckets.length);
+        }
+        buckets = newBuckets;
 
-        for (GenericMap.Node<K, V> node : oldBuckets) {
-            while (node != null){
-                put(node.getKey(), node.getValue());
-                node = node.next;
+        if (membershipFilter != null && buckets.length * DEFAULT_LOAD_FACTOR > expectedFilterEntries){
+            enableMembershipFilter((int) (buckets.length * DEFAULT_LOAD_FACTOR), membershipFilter.falsePositiveRate());
+        }
+    }
+
+    /**
+     * Splits every chain of {@code oldBuckets[from, to)} into the nodes staying at the same index
+     * and the ones moving up by the old length. Ranges never share target buckets.
+     */
+    private void splitBuckets(GenericMap.Node<K, V>[] oldBuckets, GenericMap.Node<K, V>[] newBuckets, int from, int to){
+        int oldLength = oldBuckets.length;
+        for (int bucketIndex = from; bucketIndex < to; ++bucketIndex){
+            GenericMap.Node<K, V> lowHead = null, lowTail = null, highHead = null, highTail = null;
+            for (GenericMap.Node<K, V> node = oldBuckets[bucketIndex]; node != null; node = node.next){
+                if ((node.hash & oldLength) == 0){
+                    if (lowTail == null){
+                        lowHead = node;
+                    } else {
+                        lowTail.next = node;
+                    }
+                    lowTail = node;
+                } else {
+                    if (highTail == null){
+                        highHead = node;
+                    } else {
+                        highTail.next = node;
+                    }
+                    highTail = node;
+                }
+            }
+            if (lowTail != null){
+                lowTail.next = null;
             }
+            if (highTail != null){
+                highTail.next = null;
+            }
+            newBuckets[bucketIndex] = lowHead;
+            newBuckets[bucketIndex + oldLength] = highHead;
         }
     }
 
+    private interface RangeBody {
+        void run(int from, int to);
+    }
+
+    /**
+     * Runs a body over {@code [from, to)}, forking halves until ranges are at most {@code splitSize} long.
+     */
+    private static final class RangeAction extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final RangeBody body;
+        private final int from;
+        private final int to;
+        private final int splitSize;
+
+        private RangeAction(RangeBody body, int from, int to, int splitSize) {
+            this.body = body;
+            this.from = from;
+            this.to = to;
+            this.splitSize = splitSize;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= splitSize){
+                body.run(from, to);
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new RangeAction(body, from, middle, splitSize), new RangeAction(body, middle, to, splitSize));
+        }
+    }
+
+    /**
+     * Lets tables of at least {@value #PARALLEL_REHASH_THRESHOLD} buckets be doubled by the given pool,
+     * each task splitting its own range of buckets. The hashing strategy must then be thread-safe.
+     */
+    public void enableParallelRehash(ForkJoinPool pool){
+        if (pool == null){
+            throw new IllegalArgumentException("Pool must not be null");
+        }
+        rehashPool = pool;
+    }
+
+    public void disableParallelRehash(){
+        rehashPool = null;
+    }
+
     @Override
     public V remove(Object key) {
-        int bucketIndex = hashIndex(key);
-        return removeFromBucket(key, bucketIndex);
+        return removeWithHash(key, hash(key));
     }
 
-    private V removeFromBucket(Object key, int bucketIndex){
+    private V removeWithHash(Object key, int hash){
+        int bucketIndex = indexFor(hash);
         GenericMap.Node<K, V> currentNode = buckets[bucketIndex];
         if (currentNode != null){
-            if (Objects.equals(currentNode.getKey(), key)){
+            if (matches(currentNode, key, hash)){
                 buckets[bucketIndex] = currentNode.next;
                 --size;
+                ++modCount;
+                afterNodeRemoval(currentNode);
                 return currentNode.getValue();
             }
             while (currentNode.next != null){
-                if (Objects.equals(currentNode.next.getKey(), key)){
-                    V valueToDelete = currentNode.next.getValue();
-                    currentNode.next = currentNode.next.next;
+                if (matches(currentNode.next, key, hash)){
+                    GenericMap.Node<K, V> nodeToDelete = currentNode.next;
+                    currentNode.next = nodeToDelete.next;
                     --size;
-                    return valueToDelete;
+                    ++modCount;
+                    afterNodeRemoval(nodeToDelete);
+                    return nodeToDelete.getValue();
                 }
                 currentNode = currentNode.next;
             }
@@ -211,6 +541,21 @@ public class GenericMap<K, V> implements Map<K, V> {
         return null;
     }
 
+    /**
+     * Called after a node is unlinked from the table. Specializations extending it must call this one.
+     */
+    void afterNodeRemoval(GenericMap.Node<K, V> node){
+        if (membershipFilter != null){
+            membershipFilter.remove(node.hash);
+        }
+        if (hotKeyCache != null){
+            hotKeyCache.invalidate(node, node.hash);
+        }
+        if (changeFeed != null){
+            changeFeed.publish(ChangeFeed.ChangeType.REMOVE, node.getKey(), node.getValue(), null);
+        }
+    }
+
     @Override
     public void putAll(Map<? extends K, ? extends V> map) {
         for (Map.Entry<? extends K, ? extends V> entry : map.entrySet()) {
@@ -218,10 +563,208 @@ public class GenericMap<K, V> implements Map<K, V> {
         }
     }
 
+    /**
+     * @return whether every mutation has to pass through the node hooks one at a time, in order
+     */
+    boolean requiresOrderedMutations(){
+        return changeFeed != null;
+    }
+
+    /**
+     * Bulk loads the entries of the given map using the pool. The table is grown for all of them up front,
+     * key hashes are computed in parallel, and the entries are then linked by tasks that each own
+     * a disjoint range of buckets, so no locking is needed. While a change feed or another
+     * mutation observer is attached this is a plain {@link #putAll(Map)}, as events have to be seen in order.
+     */
+    @SuppressWarnings("unchecked")
+    public void parallelPutAll(Map<? extends K, ? extends V> map, ForkJoinPool pool){
+        if (pool == null){
+            throw new IllegalArgumentException("Pool must not be null");
+        }
+        int count = map.size();
+        if (requiresOrderedMutations() || count < PARALLEL_SPLIT_SIZE){
+            putAll(map);
+            return;
+        }
+        ForkJoinPool previousPool = rehashPool;
+        rehashPool = pool;
+        try {
+            while (size + count + 1 >= buckets.length * DEFAULT_LOAD_FACTOR && buckets.length < MAXIMUM_CAPACITY){
+                rehash();
+            }
+        } finally {
+            rehashPool = previousPool;
+        }
+
+        Object[] keys = new Object[count];
+        Object[] values = new Object[count];
+        int i = 0;
+        for (Map.Entry<? extends K, ? extends V> entry : map.entrySet()) {
+            keys[i] = entry.getKey();
+            values[i++] = entry.getValue();
+        }
+        int[] hashes = new int[count];
+        pool.invoke(new RangeAction((from, to) -> {
+            for (int node = from; node < to; ++node){
+                hashes[node] = hash(keys[node]);
+            }
+        }, 0, count, PARALLEL_SPLIT_SIZE));
+        GenericMap.Node<K, V>[] nodes = createBucketArray(count);
+        for (int node = 0; node < count; ++node){
+            nodes[node] = newNode(hashes[node], (K) keys[node], (V) values[node], null);
+        }
+
+        //counting sort of the entries by the range of buckets they fall into
+        int rangeBits = Math.min(Integer.numberOfTrailingZeros(buckets.length),
+                32 - Integer.numberOfLeadingZeros(pool.getParallelism() * 8));
+        int rangeShift = Integer.numberOfTrailingZeros(buckets.length) - rangeBits;
+        int[] rangeStarts = new int[(1 << rangeBits) + 1];
+        for (int hash : hashes) {
+            ++rangeStarts[(indexFor(hash) >>> rangeShift) + 1];
+        }
+        for (int range = 1; range < rangeStarts.length; ++range){
+            rangeStarts[range] += rangeStarts[range - 1];
+        }
+        int[] order = new int[count];
+        int[] positions = Arrays.copyOf(rangeStarts, rangeStarts.length - 1);
+        for (int node = 0; node < count; ++node){
+            order[positions[indexFor(hashes[node]) >>> rangeShift]++] = node;
+        }
+
+        boolean[] inserted = new boolean[count];
+        AtomicInteger added = new AtomicInteger();
+        pool.invoke(new RangeAction((fromRange, toRange) -> {
+            int addedInRanges = 0;
+            for (int position = rangeStarts[fromRange]; position < rangeStarts[toRange]; ++position){
+                int node = order[position];
+                int bucketIndex = indexFor(hashes[node]);
+                GenericMap.Node<K, V> existingNode = findNode(nodes[node].getKey(), hashes[node]);
+                if (existingNode != null){
+                    existingNode.setValue(nodes[node].getValue());
+                } else {
+                    nodes[node].next = buckets[bucketIndex];
+                    buckets[bucketIndex] = nodes[node];
+                    inserted[node] = true;
+                    ++addedInRanges;
+                }
+            }
+            added.addAndGet(addedInRanges);
+        }, 0, 1 << rangeBits, 1));
+        size += added.get();
+        ++modCount;
+
+        if (membershipFilter != null){
+            for (int node = 0; node < count; ++node){
+                if (inserted[node]){
+                    membershipFilter.add(hashes[node]);
+                }
+            }
+        }
+    }
+
+    /**
+     * Looks up every key of the batch, writing the value of {@code keys[i]} into {@code out[i]}.
+     * Keys are hashed first and chains are then walked one node per key per round,
+     * so the cache misses of independent keys overlap instead of being taken one after another.
+     */
+    public void getAll(K[] keys, V[] out){
+        if (out.length < keys.length){
+            throw new IllegalArgumentException("Output array is shorter than keys array: " + out.length);
+        }
+        int[] hashes = new int[Math.min(keys.length, BATCH_GROUP_SIZE)];
+        GenericMap.Node<K, V>[] cursors = createBucketArray(hashes.length);
+        GenericMap.Node<K, V>[] found = createBucketArray(hashes.length);
+
+        for (int from = 0; from < keys.length; from += BATCH_GROUP_SIZE){
+            int count = Math.min(BATCH_GROUP_SIZE, keys.length - from);
+            findGroup(keys, from, count, hashes, cursors, found);
+            for (int i = 0; i < count; ++i){
+                out[from + i] = found[i] == null ? null : found[i].getValue();
+            }
+        }
+    }
+
+    /**
+     * Puts {@code values[i]} under {@code keys[i]} for the whole batch. The nodes of each group's keys
+     * are found first with the interleaved walk of {@link #getAll}, present keys are rewritten in place,
+     * and the table is grown only for the keys found absent before they are linked.
+     */
+    public void putAll(K[] keys, V[] values){
+        if (values.length < keys.length){
+            throw new IllegalArgumentException("Values array is shorter than keys array: " + values.length);
+        }
+        int[] hashes = new int[Math.min(keys.length, BATCH_GROUP_SIZE)];
+        GenericMap.Node<K, V>[] cursors = createBucketArray(hashes.length);
+        GenericMap.Node<K, V>[] found = createBucketArray(hashes.length);
+
+        for (int from = 0; from < keys.length; from += BATCH_GROUP_SIZE){
+            int count = Math.min(BATCH_GROUP_SIZE, keys.length - from);
+            findGroup(keys, from, count, hashes, cursors, found);
+            int absent = 0;
+            for (int i = 0; i < count; ++i){
+                if (found[i] == null){
+                    ++absent;
+                }
+            }
+            while (absent > 0 && size + absent + 1 >= buckets.length * DEFAULT_LOAD_FACTOR && buckets.length < MAXIMUM_CAPACITY){
+                rehash();
+            }
+            for (int i = 0; i < count; ++i){
+                if (found[i] != null){
+                    rewriteEntry(found[i], values[from + i]);
+                } else {
+                    //an equal key earlier in the group may have been linked since the walk
+                    putWithHash(keys[from + i], values[from + i], hashes[i]);
+                }
+            }
+        }
+    }
+
+    /**
+     * Hashes {@code keys[from, from + count)} and finds the node of each into {@code found}, or {@code null}.
+     * Chains are walked one node per key per round, so the cache misses of the group overlap.
+     */
+    private void findGroup(Object[] keys, int from, int count, int[] hashes,
+                           GenericMap.Node<K, V>[] cursors, GenericMap.Node<K, V>[] found){
+        for (int i = 0; i < count; ++i){
+            hashes[i] = hash(keys[from + i]);
+            cursors[i] = definitelyAbsent(hashes[i]) ? null : buckets[indexFor(hashes[i])];
+            found[i] = null;
+        }
+
+        boolean pending = true;
+        while (pending){
+            pending = false;
+            for (int i = 0; i < count; ++i){
+                GenericMap.Node<K, V> currentNode = cursors[i];
+                if (currentNode == null){
+                    continue;
+                }
+                if (matches(currentNode, keys[from + i], hashes[i])){
+                    found[i] = currentNode;
+                    cursors[i] = null;
+                } else {
+                    cursors[i] = currentNode.next;
+                    pending |= currentNode.next != null;
+                }
+            }
+        }
+    }
+
     @Override
     public void clear() {
         size = 0;
+        ++modCount;
         buckets = createBucketArray(DEFAULT_INITIAL_CAPACITY);
+        if (membershipFilter != null){
+            membershipFilter.clear();
+        }
+        if (hotKeyCache != null){
+            hotKeyCache.clear();
+        }
+        if (changeFeed != null){
+            changeFeed.publish(ChangeFeed.ChangeType.CLEAR, null, null, null);
+        }
     }
 
     @Override
@@ -248,15 +791,254 @@ public class GenericMap<K, V> implements Map<K, V> {
         return values;
     }
 
+    /**
+     * Calls the action for every entry, walking the bucket chains in place.
+     * @throws ConcurrentModificationException if the action inserts or removes entries
+     */
+    @Override
+    public void forEach(BiConsumer<? super K, ? super V> action) {
+        Objects.requireNonNull(action);
+        int expectedModCount = modCount;
+        for (GenericMap.Node<K, V> currentNode : buckets) {
+            while (currentNode != null){
+                action.accept(currentNode.getKey(), currentNode.getValue());
+                checkModCount(expectedModCount);
+                currentNode = currentNode.next;
+            }
+        }
+    }
+
+    /**
+     * Replaces every value in place with the result of the function, publishing a rewrite per entry.
+     * @throws ConcurrentModificationException if the function inserts or removes entries
+     */
+    @Override
+    public void replaceAll(BiFunction<? super K, ? super V, ? extends V> function) {
+        Objects.requireNonNull(function);
+        int expectedModCount = modCount;
+        for (GenericMap.Node<K, V> currentNode : buckets) {
+            while (currentNode != null){
+                V value = function.apply(currentNode.getKey(), currentNode.getValue());
+                checkModCount(expectedModCount);
+                rewriteEntry(currentNode, value);
+                currentNode = currentNode.next;
+            }
+        }
+    }
+
+    /**
+     * Fails a walk over the chains once a callback changed the map in structure, as a rehash
+     * may have moved the nodes still to be visited.
+     */
+    private void checkModCount(int expectedModCount){
+        if (modCount != expectedModCount){
+            throw new ConcurrentModificationException();
+        }
+    }
+
+    /**
+     * Unlinks every node matching the filter in a single pass over the chains.
+     * @param entry reusable entry pointed at each node in turn before it is tested
+     * @return whether any node was removed
+     */
+    private boolean removeNodesIf(NodeEntry entry, Predicate<? super Map.Entry<K, V>> filter){
+        boolean removed = false;
+        int expectedModCount = modCount;
+        for (int bucketIndex = 0; bucketIndex < buckets.length; ++bucketIndex){
+            GenericMap.Node<K, V> previous = null;
+            GenericMap.Node<K, V> currentNode = buckets[bucketIndex];
+            while (currentNode != null){
+                GenericMap.Node<K, V> nextNode = currentNode.next;
+                entry.node = currentNode;
+                boolean matched = filter.test(entry);
+                checkModCount(expectedModCount);
+                if (matched){
+                    if (previous == null){
+                        buckets[bucketIndex] = nextNode;
+                    } else {
+                        previous.next = nextNode;
+                    }
+                    --size;
+                    expectedModCount = ++modCount;
+                    afterNodeRemoval(currentNode);
+                    removed = true;
+                } else {
+                    previous = currentNode;
+                }
+                currentNode = nextNode;
+            }
+        }
+        return removed;
+    }
+
+    /**
+     * Unlinks a node of this map found without its key, as {@link #remove(Object)} would unlink it.
+     */
+    void removeNode(GenericMap.Node<K, V> node){
+        int bucketIndex = indexFor(node.hash);
+        GenericMap.Node<K, V> currentNode = buckets[bucketIndex];
+        if (currentNode == node){
+            buckets[bucketIndex] = node.next;
+        } else {
+            while (currentNode.next != node){
+                currentNode = currentNode.next;
+            }
+            currentNode.next = node.next;
+        }
+        --size;
+        ++modCount;
+        afterNodeRemoval(node);
+    }
+
+    /**
+     * @return a view of the entries backed by this map; removals through it and {@code setValue}
+     * on its entries are applied to the map like {@code remove} and {@code put}
+     */
     @Override
     public Set<Map.Entry<K, V>> entrySet() {
-        Set<Map.Entry<K, V>> entrySet = new HashSet<>();
-        for (GenericMap.Node<K, V> bucket : buckets) {
-            while (bucket != null){
-                entrySet.add(new AbstractMap.SimpleEntry<>(bucket.getKey(), bucket.getValue()));
-                bucket = bucket.next;
+        return new EntrySet();
+    }
+
+    private final class EntrySet extends AbstractSet<Map.Entry<K, V>> {
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public Iterator<Map.Entry<K, V>> iterator() {
+            return new EntryIterator();
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            if (!(o instanceof Map.Entry)){
+                return false;
+            }
+            Map.Entry<?, ?> entry = (Map.Entry<?, ?>) o;
+            return GenericMap.this.containsKey(entry.getKey())
+                    && Objects.equals(GenericMap.this.get(entry.getKey()), entry.getValue());
+        }
+
+        @Override
+        public boolean remove(Object o) {
+            if (!contains(o)){
+                return false;
+            }
+            GenericMap.this.remove(((Map.Entry<?, ?>) o).getKey());
+            return true;
+        }
+
+        @Override
+        public void clear() {
+            GenericMap.this.clear();
+        }
+
+        /**
+         * Walks the chains once, handing the filter a single entry that is moved from node to node,
+         * so entries passed to the filter must not be kept.
+         */
+        @Override
+        public boolean removeIf(Predicate<? super Map.Entry<K, V>> filter) {
+            Objects.requireNonNull(filter);
+            return removeNodesIf(new NodeEntry(), filter);
+        }
+    }
+
+    /**
+     * Iterator over the chains in bucket order. It fails fast with {@link ConcurrentModificationException}
+     * once the map is changed in structure other than through {@link #remove()}, as a rehash may have moved
+     * the nodes it has yet to visit.
+     */
+    private final class EntryIterator implements Iterator<Map.Entry<K, V>> {
+        private int bucketIndex = 0;
+        private GenericMap.Node<K, V> nextNode;
+        private GenericMap.Node<K, V> lastReturned;
+        private int expectedModCount = modCount;
+
+        private EntryIterator() {
+            advanceToBucket();
+        }
+
+        private void advanceToBucket(){
+            while (nextNode == null && bucketIndex < buckets.length){
+                nextNode = buckets[bucketIndex++];
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return nextNode != null;
+        }
+
+        @Override
+        public Map.Entry<K, V> next() {
+            if (modCount != expectedModCount){
+                throw new ConcurrentModificationException();
+            }
+            if (nextNode == null){
+                throw new NoSuchElementException();
+            }
+            lastReturned = nextNode;
+            nextNode = nextNode.next;
+            advanceToBucket();
+            NodeEntry entry = new NodeEntry();
+            entry.node = lastReturned;
+            return entry;
+        }
+
+        @Override
+        public void remove() {
+            if (lastReturned == null){
+                throw new IllegalStateException();
+            }
+            if (modCount != expectedModCount){
+                throw new ConcurrentModificationException();
             }
+            removeNode(lastReturned);
+            lastReturned = null;
+            expectedModCount = modCount;
+        }
+    }
+
+    /**
+     * Entry pointing at a node of this map, writing values through {@link #rewriteEntry}.
+     */
+    private final class NodeEntry implements Map.Entry<K, V> {
+        private GenericMap.Node<K, V> node;
+
+        @Override
+        public K getKey() {
+            return node.getKey();
+        }
+
+        @Override
+        public V getValue() {
+            return node.getValue();
+        }
+
+        @Override
+        public V setValue(V value) {
+            return rewriteEntry(node, value);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Map.Entry)) return false;
+            Map.Entry<?, ?> entry = (Map.Entry<?, ?>) o;
+            return Objects.equals(getKey(), entry.getKey()) && Objects.equals(getValue(), entry.getValue());
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hashCode(getKey()) ^ Objects.hashCode(getValue());
+        }
+
+        @Override
+        public String toString() {
+            return getKey() + "=" + getValue();
         }
-        return entrySet;
     }
 }
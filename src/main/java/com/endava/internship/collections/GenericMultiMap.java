@@ -0,0 +1,197 @@
+package com.endava.internship.collections;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.BiConsumer;
+
+/**
+ * Map from each key to a list of values, stored in one {@link GenericMap} whose entries hold the values
+ * of a key in a bare growable {@code Object[]}. The values fill a prefix of the array, {@code null} ones masked,
+ * and the free slots after them are {@code null}, so the array records its own count and no holder object
+ * is kept next to it. Adding a value to a present key is a single lookup followed by an append in place;
+ * keys are dropped as soon as their last value is removed.
+ */
+public class GenericMultiMap<K, V> {
+    private static final int INITIAL_VALUES_CAPACITY = 4;
+    private static final Object NULL_VALUE = new Object();
+
+    private final GenericMap<K, Object[]> map;
+    private int valueCount = 0;
+
+    public GenericMultiMap() {
+        this(GenericMap.DEFAULT_INITIAL_CAPACITY);
+    }
+
+    public GenericMultiMap(int initialCapacity) {
+        map = new GenericMap<>(initialCapacity);
+    }
+
+    private static Object maskNull(Object value){
+        return value == null ? NULL_VALUE : value;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <V> V unmaskNull(Object value){
+        return value == NULL_VALUE ? null : (V) value;
+    }
+
+    /**
+     * @return the number of values in the array, found by a binary search for its first free slot
+     */
+    private static int countOf(Object[] values){
+        int low = 0, high = values.length;
+        while (low < high){
+            int middle = (low + high) >>> 1;
+            if (values[middle] == null){
+                high = middle;
+            } else {
+                low = middle + 1;
+            }
+        }
+        return low;
+    }
+
+    private static int indexOf(Object[] values, Object maskedValue){
+        for (int i = 0; i < values.length && values[i] != null; ++i){
+            if (values[i].equals(maskedValue)){
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * @return the number of key-value pairs
+     */
+    public int size() {
+        return valueCount;
+    }
+
+    public int keyCount() {
+        return map.size();
+    }
+
+    public boolean isEmpty() {
+        return valueCount == 0;
+    }
+
+    public boolean containsKey(Object key) {
+        return map.containsKey(key);
+    }
+
+    /**
+     * Adds the value to the ones of the key, keeping earlier equal values.
+     */
+    public void putValue(K key, V value) {
+        Object[] values = map.get(key);
+        int count = 0;
+        if (values == null){
+            values = new Object[INITIAL_VALUES_CAPACITY];
+            map.put(key, values);
+        } else {
+            count = countOf(values);
+            if (count == values.length){
+                values = Arrays.copyOf(values, count + (count >> 1));
+                map.put(key, values);
+            }
+        }
+        values[count] = maskNull(value);
+        ++valueCount;
+    }
+
+    /**
+     * Removes the first value of the key equal to the given one.
+     * @return whether such a value was found
+     */
+    public boolean removeValue(Object key, Object value) {
+        Object[] values = map.get(key);
+        int index = values == null ? -1 : indexOf(values, maskNull(value));
+        if (index < 0){
+            return false;
+        }
+        int count = countOf(values);
+        System.arraycopy(values, index + 1, values, index, count - index - 1);
+        values[count - 1] = null;
+        --valueCount;
+        if (count == 1){
+            map.remove(key);
+        }
+        return true;
+    }
+
+    /**
+     * @return the number of values removed with the key
+     */
+    public int removeKey(Object key) {
+        Object[] values = map.remove(key);
+        if (values == null){
+            return 0;
+        }
+        int count = countOf(values);
+        valueCount -= count;
+        return count;
+    }
+
+    /**
+     * @return a read-only list of the values of the key, in insertion order, that follows later changes
+     */
+    public List<V> valuesFor(K key) {
+        return new ValuesView(key);
+    }
+
+    public Set<K> keySet() {
+        return map.keySet();
+    }
+
+    /**
+     * Calls the action for every key-value pair, walking the packed values in place.
+     */
+    public void forEach(BiConsumer<? super K, ? super V> action) {
+        Objects.requireNonNull(action);
+        map.forEach((key, values) -> {
+            for (int i = 0; i < values.length && values[i] != null; ++i){
+                action.accept(key, GenericMultiMap.<V>unmaskNull(values[i]));
+            }
+        });
+    }
+
+    public void clear() {
+        map.clear();
+        valueCount = 0;
+    }
+
+    /**
+     * @return the heap held by the map and the value arrays, without the keys and values themselves
+     */
+    public long estimatedMemoryBytes() {
+        long[] bytes = {map.estimatedMemoryBytes()};
+        map.forEach((key, values) -> bytes[0] += ObjectLayout.CURRENT.referenceArraySize(values.length));
+        return bytes[0];
+    }
+
+    private final class ValuesView extends AbstractList<V> {
+        private final K key;
+
+        private ValuesView(K key) {
+            this.key = key;
+        }
+
+        @Override
+        public V get(int index) {
+            Object[] values = map.get(key);
+            if (values == null || index < 0 || index >= values.length || values[index] == null){
+                throw new IndexOutOfBoundsException("Index: " + index + ", size: " + size());
+            }
+            return unmaskNull(values[index]);
+        }
+
+        @Override
+        public int size() {
+            Object[] values = map.get(key);
+            return values == null ? 0 : countOf(values);
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package com.endava.internship.collections;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * Key hashing and equivalence used by {@link GenericMap}. Maps never pass {@code null} to a strategy;
+ * the {@code null} key is handled by the map itself.
+ * Strategies let keys such as arrays or case-insensitive strings be looked up as they are,
+ * without wrapping or normalizing them first.
+ */
+public interface Hashing<K> {
+
+    int hash(Object key);
+
+    /**
+     * @param storedKey key held by the map
+     * @param key key being looked up, possibly of another type
+     */
+    boolean equals(K storedKey, Object key);
+
+    /**
+     * @return hashing through the keys' own {@code hashCode} and {@code equals}
+     */
+    @SuppressWarnings("unchecked")
+    static <K> Hashing<K> natural() {
+        return (Hashing<K>) Natural.INSTANCE;
+    }
+
+    /**
+     * @return hashing by reference, as {@link java.util.IdentityHashMap} does
+     */
+    @SuppressWarnings("unchecked")
+    static <K> Hashing<K> identity() {
+        return (Hashing<K>) Identity.INSTANCE;
+    }
+
+    /**
+     * @return hashing of arrays by their contents; primitive arrays and nested object arrays are supported
+     */
+    @SuppressWarnings("unchecked")
+    static <K> Hashing<K> arrays() {
+        return (Hashing<K>) ArrayContents.INSTANCE;
+    }
+
+    /**
+     * @return hashing of strings ignoring case, as {@link String#equalsIgnoreCase(String)} does
+     */
+    static Hashing<String> caseInsensitive() {
+        return CaseInsensitive.INSTANCE;
+    }
+
+    enum Natural implements Hashing<Object> {
+        INSTANCE;
+
+        @Override
+        public int hash(Object key) {
+            return key.hashCode();
+        }
+
+        @Override
+        public boolean equals(Object storedKey, Object key) {
+            return storedKey.equals(key);
+        }
+    }
+
+    enum Identity implements Hashing<Object> {
+        INSTANCE;
+
+        @Override
+        public int hash(Object key) {
+            return System.identityHashCode(key);
+        }
+
+        @Override
+        public boolean equals(Object storedKey, Object key) {
+            return storedKey == key;
+        }
+    }
+
+    enum ArrayContents implements Hashing<Object> {
+        INSTANCE;
+
+        @Override
+        public int hash(Object key) {
+            if (key instanceof byte[]) return Arrays.hashCode((byte[]) key);
+            if (key instanceof int[]) return Arrays.hashCode((int[]) key);
+            if (key instanceof long[]) return Arrays.hashCode((long[]) key);
+            if (key instanceof char[]) return Arrays.hashCode((char[]) key);
+            if (key instanceof short[]) return Arrays.hashCode((short[]) key);
+            if (key instanceof boolean[]) return Arrays.hashCode((boolean[]) key);
+            if (key instanceof float[]) return Arrays.hashCode((float[]) key);
+            if (key instanceof double[]) return Arrays.hashCode((double[]) key);
+            if (key instanceof Object[]) return Arrays.deepHashCode((Object[]) key);
+            return key.hashCode();
+        }
+
+        @Override
+        public boolean equals(Object storedKey, Object key) {
+            return Objects.deepEquals(storedKey, key);
+        }
+    }
+
+    enum CaseInsensitive implements Hashing<String> {
+        INSTANCE;
+
+        @Override
+        public int hash(Object key) {
+            if (!(key instanceof String)){
+                return key.hashCode();
+            }
+            String string = (String) key;
+            int hash = 0;
+            for (int i = 0; i < string.length(); ++i){
+                hash = 31 * hash + Character.toLowerCase(Character.toUpperCase(string.charAt(i)));
+            }
+            return hash;
+        }
+
+        @Override
+        public boolean equals(String storedKey, Object key) {
+            return key instanceof String && storedKey.equalsIgnoreCase((String) key);
+        }
+    }
+}
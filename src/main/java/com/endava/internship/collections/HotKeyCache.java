@@ -0,0 +1,116 @@
+package com.endava.internship.collections;
+
+import java.util.Arrays;
+
+/**
+ * Small direct-mapped array of the most frequently read nodes of a {@link GenericMap}, checked before
+ * the bucket chains. Read frequencies are estimated with a count-min sketch whose counters are halved
+ * periodically, so keys that cool down lose their slot to the ones that are hot now.
+ * Slots hold the map's own nodes, so rewritten values are seen at once; removed nodes must be
+ * {@link #invalidate(GenericMap.Node, int) invalidated}.
+ */
+final class HotKeyCache<K, V> {
+    private static final int SKETCH_DEPTH = 4;
+    private static final int SKETCH_WIDTH_PER_SLOT = 16;
+    private static final int SAMPLES_PER_COUNTER = 10;
+    private static final int PROMOTION_THRESHOLD = 4;
+
+    private final GenericMap.Node<K, V>[] nodes;
+    private final int[] hashes;
+    private final int slotMask;
+    private final int[] sketch;
+    private final int sketchMask;
+    private final int samplesBeforeAging;
+    private int samples;
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    HotKeyCache(int slots) {
+        if (slots <= 0 || slots > 1 << 20){
+            throw new IllegalArgumentException("Illegal hot key slots: " + slots);
+        }
+        int length = powerOfTwoAtLeast(slots);
+        nodes = (GenericMap.Node<K, V>[]) new GenericMap.Node[length];
+        hashes = new int[length];
+        slotMask = length - 1;
+
+        int width = length * SKETCH_WIDTH_PER_SLOT;
+        sketch = new int[SKETCH_DEPTH * width];
+        sketchMask = width - 1;
+        samplesBeforeAging = width * SAMPLES_PER_COUNTER;
+    }
+
+    private static int powerOfTwoAtLeast(int value) {
+        int powerOfTwo = Integer.highestOneBit(value);
+        return powerOfTwo < value ? powerOfTwo << 1 : powerOfTwo;
+    }
+
+    /**
+     * @return the cached node in the slot of this hash, which may hold another key
+     */
+    GenericMap.Node<K, V> lookup(int hash) {
+        return nodes[spread(hash) & slotMask];
+    }
+
+    /**
+     * Counts a read served from the cache, so a cached key keeps the frequency that defends its slot.
+     */
+    void recordHit(int hash) {
+        increment(hash);
+    }
+
+    /**
+     * Counts a read that missed the cache and promotes the node once it is read more often than the slot's occupant.
+     */
+    void recordAccess(GenericMap.Node<K, V> node, int hash) {
+        int frequency = increment(hash);
+        int slot = spread(hash) & slotMask;
+        GenericMap.Node<K, V> occupant = nodes[slot];
+        if (frequency >= PROMOTION_THRESHOLD && (occupant == null || frequency > estimate(hashes[slot]))){
+            nodes[slot] = node;
+            hashes[slot] = hash;
+        }
+    }
+
+    void invalidate(GenericMap.Node<K, V> node, int hash) {
+        int slot = spread(hash) & slotMask;
+        if (nodes[slot] == node){
+            nodes[slot] = null;
+        }
+    }
+
+    void clear() {
+        Arrays.fill(nodes, null);
+    }
+
+    private int increment(int hash) {
+        int frequency = Integer.MAX_VALUE;
+        for (int row = 0; row < SKETCH_DEPTH; ++row){
+            int index = row * (sketchMask + 1) + (rowHash(hash, row) & sketchMask);
+            frequency = Math.min(frequency, ++sketch[index]);
+        }
+        if (++samples >= samplesBeforeAging){
+            samples = 0;
+            for (int i = 0; i < sketch.length; ++i){
+                sketch[i] >>>= 1;
+            }
+        }
+        return frequency;
+    }
+
+    private int estimate(int hash) {
+        int frequency = Integer.MAX_VALUE;
+        for (int row = 0; row < SKETCH_DEPTH; ++row){
+            frequency = Math.min(frequency, sketch[row * (sketchMask + 1) + (rowHash(hash, row) & sketchMask)]);
+        }
+        return frequency;
+    }
+
+    private static int rowHash(int hash, int row) {
+        int mixed = (hash + row) * 0x9E3779B9 + row * 0x7F4A7C15;
+        return mixed ^ (mixed >>> 16);
+    }
+
+    private static int spread(int hash) {
+        return hash ^ (hash >>> 16);
+    }
+}
@@ -0,0 +1,328 @@
+package com.endava.internship.collections;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Map from primitive {@code long} keys to primitive {@code int} values, kept in parallel arrays with linear probing.
+ * A zero in the key array marks a free slot, and the key zero itself is held outside the table,
+ * so every {@code long} can be used as a key. Removal shifts the following entries of the probe run
+ * back instead of leaving tombstones. Absent keys read as the missing value chosen at construction.
+ * Lookups and updates allocate nothing.
+ */
+public class LongIntMap {
+    private static final int DEFAULT_INITIAL_CAPACITY = 16;
+    private static final float DEFAULT_LOAD_FACTOR = 0.75f;
+    private static final int MAXIMUM_CAPACITY = 1 << 30;
+
+    private long[] keys;
+    private int[] values;
+    private int mask;
+    private int shift;
+    private int tableSize = 0;
+    private boolean hasZeroKey = false;
+    private int zeroValue;
+    private final int missingValue;
+
+    /**
+     * Receives the entries of the map without boxing the keys.
+     */
+    public interface EntryConsumer {
+        void accept(long key, int value);
+    }
+
+    public LongIntMap() {
+        this(DEFAULT_INITIAL_CAPACITY, 0);
+    }
+
+    /**
+     * @param missingValue value returned by {@link #get(long)}, {@link #put(long, int)} and {@link #remove(long)}
+     * for keys that are not in the map
+     */
+    public LongIntMap(int initialCapacity, int missingValue) {
+        if (initialCapacity < 0){
+            throw new IllegalArgumentException("Illegal initial capacity: " + initialCapacity);
+        }
+        this.missingValue = missingValue;
+        allocate(tableSizeFor((int) Math.min(MAXIMUM_CAPACITY, (long) Math.ceil(initialCapacity / DEFAULT_LOAD_FACTOR))));
+    }
+
+    private static int tableSizeFor(int capacity){
+        if (capacity <= DEFAULT_INITIAL_CAPACITY){
+            return DEFAULT_INITIAL_CAPACITY;
+        }
+        int powerOfTwo = Integer.highestOneBit(capacity);
+        return powerOfTwo < capacity ? powerOfTwo << 1 : powerOfTwo;
+    }
+
+    private void allocate(int length){
+        keys = new long[length];
+        values = new int[length];
+        mask = length - 1;
+        shift = 64 - Integer.numberOfTrailingZeros(length);
+    }
+
+    /**
+     * Fibonacci hashing: the top bits of the key multiplied by the golden ratio select the slot.
+     */
+    private int indexFor(long key){
+        return (int) ((key * 0x9E3779B97F4A7C15L) >>> shift);
+    }
+
+    private int findSlot(long key){
+        for (int slot = indexFor(key); ; slot = (slot + 1) & mask){
+            long storedKey = keys[slot];
+            if (storedKey == key){
+                return slot;
+            }
+            if (storedKey == 0){
+                return -1;
+            }
+        }
+    }
+
+    public int size() {
+        return tableSize + (hasZeroKey ? 1 : 0);
+    }
+
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    public boolean containsKey(long key) {
+        return key == 0 ? hasZeroKey : findSlot(key) >= 0;
+    }
+
+    public int get(long key) {
+        if (key == 0){
+            return hasZeroKey ? zeroValue : missingValue;
+        }
+        int slot = findSlot(key);
+        return slot < 0 ? missingValue : values[slot];
+    }
+
+    public int put(long key, int value) {
+        if (key == 0){
+            int oldValue = hasZeroKey ? zeroValue : missingValue;
+            zeroValue = value;
+            hasZeroKey = true;
+            return oldValue;
+        }
+        int slot = indexFor(key);
+        while (keys[slot] != 0){
+            if (keys[slot] == key){
+                int oldValue = values[slot];
+                values[slot] = value;
+                return oldValue;
+            }
+            slot = (slot + 1) & mask;
+        }
+        if (tableSize + 1 > keys.length * DEFAULT_LOAD_FACTOR && keys.length < MAXIMUM_CAPACITY){
+            rehash(keys.length * 2);
+            slot = indexFor(key);
+            while (keys[slot] != 0){
+                slot = (slot + 1) & mask;
+            }
+        }
+        if (tableSize + 1 >= keys.length){
+            throw new IllegalStateException("Map is full at maximum capacity: " + size());
+        }
+        keys[slot] = key;
+        values[slot] = value;
+        ++tableSize;
+        return missingValue;
+    }
+
+    private void rehash(int length){
+        long[] oldKeys = keys;
+        int[] oldValues = values;
+        allocate(length);
+        for (int oldSlot = 0; oldSlot < oldKeys.length; ++oldSlot){
+            if (oldKeys[oldSlot] != 0){
+                int slot = indexFor(oldKeys[oldSlot]);
+                while (keys[slot] != 0){
+                    slot = (slot + 1) & mask;
+                }
+                keys[slot] = oldKeys[oldSlot];
+                values[slot] = oldValues[oldSlot];
+            }
+        }
+    }
+
+    public int remove(long key) {
+        if (key == 0){
+            int oldValue = hasZeroKey ? zeroValue : missingValue;
+            zeroValue = 0;
+            hasZeroKey = false;
+            return oldValue;
+        }
+        int slot = findSlot(key);
+        if (slot < 0){
+            return missingValue;
+        }
+        int oldValue = values[slot];
+        shiftBack(slot);
+        --tableSize;
+        return oldValue;
+    }
+
+    /**
+     * Fills the freed slot with the next entry of the run that may live there, repeating until the run ends.
+     */
+    private void shiftBack(int hole){
+        for (int slot = (hole + 1) & mask; keys[slot] != 0; slot = (slot + 1) & mask){
+            int home = indexFor(keys[slot]);
+            if (((slot - home) & mask) >= ((slot - hole) & mask)){
+                keys[hole] = keys[slot];
+                values[hole] = values[slot];
+                hole = slot;
+            }
+        }
+        keys[hole] = 0;
+        values[hole] = 0;
+    }
+
+    public void clear() {
+        Arrays.fill(keys, 0);
+        Arrays.fill(values, 0);
+        tableSize = 0;
+        hasZeroKey = false;
+        zeroValue = 0;
+    }
+
+    public void forEach(EntryConsumer action) {
+        Objects.requireNonNull(action);
+        if (hasZeroKey){
+            action.accept(0, zeroValue);
+        }
+        for (int slot = 0; slot < keys.length; ++slot){
+            if (keys[slot] != 0){
+                action.accept(keys[slot], values[slot]);
+            }
+        }
+    }
+
+    /**
+     * @return the heap held by the key and value arrays
+     */
+    public long estimatedMemoryBytes(){
+        return ObjectLayout.CURRENT.primitiveArraySize(keys.length, Long.BYTES)
+                + ObjectLayout.CURRENT.primitiveArraySize(values.length, Integer.BYTES);
+    }
+
+    /**
+     * @return a {@link Map} view backed by this map, boxing keys and values on the way in and out;
+     * absent keys read as {@code null} there, and its iterators do not support removal
+     */
+    public Map<Long, Integer> asMap(){
+        return new BoxedMap();
+    }
+
+    private final class BoxedMap extends AbstractMap<Long, Integer> {
+
+        @Override
+        public int size() {
+            return LongIntMap.this.size();
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            return key instanceof Long && LongIntMap.this.containsKey((Long) key);
+        }
+
+        @Override
+        public Integer get(Object key) {
+            return containsKey(key) ? LongIntMap.this.get((Long) key) : null;
+        }
+
+        @Override
+        public Integer put(Long key, Integer value) {
+            Objects.requireNonNull(key);
+            Objects.requireNonNull(value);
+            Integer oldValue = get(key);
+            LongIntMap.this.put(key, value);
+            return oldValue;
+        }
+
+        @Override
+        public Integer remove(Object key) {
+            Integer oldValue = get(key);
+            if (oldValue != null){
+                LongIntMap.this.remove((Long) key);
+            }
+            return oldValue;
+        }
+
+        @Override
+        public void clear() {
+            LongIntMap.this.clear();
+        }
+
+        @Override
+        public Set<Map.Entry<Long, Integer>> entrySet() {
+            return new AbstractSet<Map.Entry<Long, Integer>>() {
+                @Override
+                public int size() {
+                    return LongIntMap.this.size();
+                }
+
+                @Override
+                public Iterator<Map.Entry<Long, Integer>> iterator() {
+                    return new EntryIterator();
+                }
+            };
+        }
+    }
+
+    private final class EntryIterator implements Iterator<Map.Entry<Long, Integer>> {
+        private boolean zeroKeyPending = hasZeroKey;
+        private int slot = nextOccupied(0);
+
+        private int nextOccupied(int from){
+            while (from < keys.length && keys[from] == 0){
+                ++from;
+            }
+            return from;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return zeroKeyPending || slot < keys.length;
+        }
+
+        @Override
+        public Map.Entry<Long, Integer> next() {
+            if (zeroKeyPending){
+                zeroKeyPending = false;
+                return new BoxedEntry(0);
+            }
+            if (slot >= keys.length){
+                throw new NoSuchElementException();
+            }
+            BoxedEntry entry = new BoxedEntry(keys[slot]);
+            slot = nextOccupied(slot + 1);
+            return entry;
+        }
+    }
+
+    private final class BoxedEntry extends AbstractMap.SimpleEntry<Long, Integer> {
+        private static final long serialVersionUID = 1L;
+
+        private BoxedEntry(long key) {
+            super(key, LongIntMap.this.get(key));
+        }
+
+        @Override
+        public Integer setValue(Integer value) {
+            Objects.requireNonNull(value);
+            super.setValue(value);
+            return put(getKey(), value);
+        }
+    }
+}
@@ -0,0 +1,317 @@
+package com.endava.internship.collections;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Map from primitive {@code long} keys to objects, kept in parallel key and value arrays with linear probing.
+ * A zero in the key array marks a free slot, and the key zero itself is held outside the table,
+ * so every {@code long} can be used as a key. Removal shifts the following entries of the probe run
+ * back instead of leaving tombstones. Lookups and updates of existing keys allocate nothing.
+ */
+public class LongObjectMap<V> {
+    private static final int DEFAULT_INITIAL_CAPACITY = 16;
+    private static final float DEFAULT_LOAD_FACTOR = 0.75f;
+    private static final int MAXIMUM_CAPACITY = 1 << 30;
+
+    private long[] keys;
+    private Object[] values;
+    private int mask;
+    private int shift;
+    private int tableSize = 0;
+    private boolean hasZeroKey = false;
+    private V zeroValue;
+
+    /**
+     * Receives the entries of the map without boxing the keys.
+     */
+    public interface EntryConsumer<V> {
+        void accept(long key, V value);
+    }
+
+    public LongObjectMap() {
+        this(DEFAULT_INITIAL_CAPACITY);
+    }
+
+    public LongObjectMap(int initialCapacity) {
+        if (initialCapacity < 0){
+            throw new IllegalArgumentException("Illegal initial capacity: " + initialCapacity);
+        }
+        allocate(tableSizeFor((int) Math.min(MAXIMUM_CAPACITY, (long) Math.ceil(initialCapacity / DEFAULT_LOAD_FACTOR))));
+    }
+
+    private static int tableSizeFor(int capacity){
+        if (capacity <= DEFAULT_INITIAL_CAPACITY){
+            return DEFAULT_INITIAL_CAPACITY;
+        }
+        int powerOfTwo = Integer.highestOneBit(capacity);
+        return powerOfTwo < capacity ? powerOfTwo << 1 : powerOfTwo;
+    }
+
+    private void allocate(int length){
+        keys = new long[length];
+        values = new Object[length];
+        mask = length - 1;
+        shift = 64 - Integer.numberOfTrailingZeros(length);
+    }
+
+    /**
+     * Fibonacci hashing: the top bits of the key multiplied by the golden ratio select the slot.
+     */
+    private int indexFor(long key){
+        return (int) ((key * 0x9E3779B97F4A7C15L) >>> shift);
+    }
+
+    private int findSlot(long key){
+        for (int slot = indexFor(key); ; slot = (slot + 1) & mask){
+            long storedKey = keys[slot];
+            if (storedKey == key){
+                return slot;
+            }
+            if (storedKey == 0){
+                return -1;
+            }
+        }
+    }
+
+    public int size() {
+        return tableSize + (hasZeroKey ? 1 : 0);
+    }
+
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    public boolean containsKey(long key) {
+        return key == 0 ? hasZeroKey : findSlot(key) >= 0;
+    }
+
+    @SuppressWarnings("unchecked")
+    public V get(long key) {
+        if (key == 0){
+            return zeroValue;
+        }
+        int slot = findSlot(key);
+        return slot < 0 ? null : (V) values[slot];
+    }
+
+    @SuppressWarnings("unchecked")
+    public V put(long key, V value) {
+        if (key == 0){
+            V oldValue = zeroValue;
+            zeroValue = value;
+            hasZeroKey = true;
+            return oldValue;
+        }
+        int slot = indexFor(key);
+        while (keys[slot] != 0){
+            if (keys[slot] == key){
+                V oldValue = (V) values[slot];
+                values[slot] = value;
+                return oldValue;
+            }
+            slot = (slot + 1) & mask;
+        }
+        if (tableSize + 1 > keys.length * DEFAULT_LOAD_FACTOR && keys.length < MAXIMUM_CAPACITY){
+            rehash(keys.length * 2);
+            slot = indexFor(key);
+            while (keys[slot] != 0){
+                slot = (slot + 1) & mask;
+            }
+        }
+        if (tableSize + 1 >= keys.length){
+            throw new IllegalStateException("Map is full at maximum capacity: " + size());
+        }
+        keys[slot] = key;
+        values[slot] = value;
+        ++tableSize;
+        return null;
+    }
+
+    private void rehash(int length){
+        long[] oldKeys = keys;
+        Object[] oldValues = values;
+        allocate(length);
+        for (int oldSlot = 0; oldSlot < oldKeys.length; ++oldSlot){
+            if (oldKeys[oldSlot] != 0){
+                int slot = indexFor(oldKeys[oldSlot]);
+                while (keys[slot] != 0){
+                    slot = (slot + 1) & mask;
+                }
+                keys[slot] = oldKeys[oldSlot];
+                values[slot] = oldValues[oldSlot];
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    public V remove(long key) {
+        if (key == 0){
+            V oldValue = zeroValue;
+            zeroValue = null;
+            hasZeroKey = false;
+            return oldValue;
+        }
+        int slot = findSlot(key);
+        if (slot < 0){
+            return null;
+        }
+        V oldValue = (V) values[slot];
+        shiftBack(slot);
+        --tableSize;
+        return oldValue;
+    }
+
+    /**
+     * Fills the freed slot with the next entry of the run that may live there, repeating until the run ends.
+     */
+    private void shiftBack(int hole){
+        for (int slot = (hole + 1) & mask; keys[slot] != 0; slot = (slot + 1) & mask){
+            int home = indexFor(keys[slot]);
+            if (((slot - home) & mask) >= ((slot - hole) & mask)){
+                keys[hole] = keys[slot];
+                values[hole] = values[slot];
+                hole = slot;
+            }
+        }
+        keys[hole] = 0;
+        values[hole] = null;
+    }
+
+    public void clear() {
+        Arrays.fill(keys, 0);
+        Arrays.fill(values, null);
+        tableSize = 0;
+        hasZeroKey = false;
+        zeroValue = null;
+    }
+
+    @SuppressWarnings("unchecked")
+    public void forEach(EntryConsumer<? super V> action) {
+        Objects.requireNonNull(action);
+        if (hasZeroKey){
+            action.accept(0, zeroValue);
+        }
+        for (int slot = 0; slot < keys.length; ++slot){
+            if (keys[slot] != 0){
+                action.accept(keys[slot], (V) values[slot]);
+            }
+        }
+    }
+
+    /**
+     * @return the heap held by the key and value arrays, without the values themselves
+     */
+    public long estimatedMemoryBytes(){
+        return ObjectLayout.CURRENT.primitiveArraySize(keys.length, Long.BYTES)
+                + ObjectLayout.CURRENT.referenceArraySize(values.length);
+    }
+
+    /**
+     * @return a {@link Map} view backed by this map, boxing keys on the way in and out;
+     * its iterators do not support removal
+     */
+    public Map<Long, V> asMap(){
+        return new BoxedMap();
+    }
+
+    private final class BoxedMap extends AbstractMap<Long, V> {
+
+        @Override
+        public int size() {
+            return LongObjectMap.this.size();
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            return key instanceof Long && LongObjectMap.this.containsKey((Long) key);
+        }
+
+        @Override
+        public V get(Object key) {
+            return key instanceof Long ? LongObjectMap.this.get((Long) key) : null;
+        }
+
+        @Override
+        public V put(Long key, V value) {
+            Objects.requireNonNull(key);
+            return LongObjectMap.this.put(key, value);
+        }
+
+        @Override
+        public V remove(Object key) {
+            return key instanceof Long ? LongObjectMap.this.remove((Long) key) : null;
+        }
+
+        @Override
+        public void clear() {
+            LongObjectMap.this.clear();
+        }
+
+        @Override
+        public Set<Map.Entry<Long, V>> entrySet() {
+            return new AbstractSet<Map.Entry<Long, V>>() {
+                @Override
+                public int size() {
+                    return LongObjectMap.this.size();
+                }
+
+                @Override
+                public Iterator<Map.Entry<Long, V>> iterator() {
+                    return new EntryIterator();
+                }
+            };
+        }
+    }
+
+    private final class EntryIterator implements Iterator<Map.Entry<Long, V>> {
+        private boolean zeroKeyPending = hasZeroKey;
+        private int slot = nextOccupied(0);
+
+        private int nextOccupied(int from){
+            while (from < keys.length && keys[from] == 0){
+                ++from;
+            }
+            return from;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return zeroKeyPending || slot < keys.length;
+        }
+
+        @Override
+        public Map.Entry<Long, V> next() {
+            if (zeroKeyPending){
+                zeroKeyPending = false;
+                return new BoxedEntry(0);
+            }
+            if (slot >= keys.length){
+                throw new NoSuchElementException();
+            }
+            BoxedEntry entry = new BoxedEntry(keys[slot]);
+            slot = nextOccupied(slot + 1);
+            return entry;
+        }
+    }
+
+    private final class BoxedEntry extends AbstractMap.SimpleEntry<Long, V> {
+        private static final long serialVersionUID = 1L;
+
+        private BoxedEntry(long key) {
+            super(key, LongObjectMap.this.get(key));
+        }
+
+        @Override
+        public V setValue(V value) {
+            super.setValue(value);
+            return put(getKey(), value);
+        }
+    }
+}
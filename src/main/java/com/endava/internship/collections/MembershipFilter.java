@@ -0,0 +1,84 @@
+package com.endava.internship.collections;
+
+import java.util.Arrays;
+
+/**
+ * Counting Bloom filter over key hashes, letting a map reject most absent keys without touching its table.
+ * Every position holds a saturating 8-bit counter, so hashes can be removed again; a counter that
+ * ever saturates stays saturated, which keeps the filter free of false negatives.
+ */
+final class MembershipFilter {
+    private static final int SATURATED = 0xFF;
+    private static final double LN_2 = Math.log(2);
+
+    private final byte[] counters;
+    private final int hashFunctions;
+    private final double falsePositiveRate;
+
+    MembershipFilter(int expectedEntries, double falsePositiveRate) {
+        if (expectedEntries <= 0){
+            throw new IllegalArgumentException("Illegal expected entries: " + expectedEntries);
+        }
+        if (!(falsePositiveRate > 0 && falsePositiveRate < 1)){
+            throw new IllegalArgumentException("Illegal false positive rate: " + falsePositiveRate);
+        }
+        long bits = (long) Math.ceil(-expectedEntries * Math.log(falsePositiveRate) / (LN_2 * LN_2));
+        counters = new byte[(int) Math.min(Math.max(bits, 64), Integer.MAX_VALUE - 8)];
+        hashFunctions = Math.max(1, (int) Math.round((double) counters.length / expectedEntries * LN_2));
+        this.falsePositiveRate = falsePositiveRate;
+    }
+
+    double falsePositiveRate() {
+        return falsePositiveRate;
+    }
+
+    void add(int hash) {
+        int first = mix(hash);
+        int step = (first >>> 16) | 1;
+        for (int i = 0; i < hashFunctions; ++i){
+            int position = position(first + i * step);
+            if ((counters[position] & SATURATED) != SATURATED){
+                ++counters[position];
+            }
+        }
+    }
+
+    void remove(int hash) {
+        int first = mix(hash);
+        int step = (first >>> 16) | 1;
+        for (int i = 0; i < hashFunctions; ++i){
+            int position = position(first + i * step);
+            int counter = counters[position] & SATURATED;
+            if (counter != SATURATED && counter != 0){
+                --counters[position];
+            }
+        }
+    }
+
+    /**
+     * @return {@code false} only if no key with this hash was added and not removed since
+     */
+    boolean mightContain(int hash) {
+        int first = mix(hash);
+        int step = (first >>> 16) | 1;
+        for (int i = 0; i < hashFunctions; ++i){
+            if (counters[position(first + i * step)] == 0){
+                return false;
+            }
+        }
+        return true;
+    }
+
+    void clear() {
+        Arrays.fill(counters, (byte) 0);
+    }
+
+    private int position(int hash) {
+        return (int) ((hash & 0xFFFFFFFFL) % counters.length);
+    }
+
+    private static int mix(int hash) {
+        hash *= 0x9E3779B9;
+        return hash ^ (hash >>> 15);
+    }
+}
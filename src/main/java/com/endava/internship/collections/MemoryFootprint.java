@@ -0,0 +1,74 @@
+package com.endava.internship.collections;
+
+/**
+ * Heap retained by the structure of a map: its bucket table, the nodes linked into it and any auxiliary
+ * structure kept next to them, such as an index or a key pool.
+ * Keys and values are not included, as they are usually shared with the rest of the application.
+ */
+public final class MemoryFootprint {
+    private final long tableBytes;
+    private final long nodeBytes;
+    private final int buckets;
+    private final int emptyBuckets;
+    private final int entries;
+    private final long auxiliaryBytes;
+
+    MemoryFootprint(long tableBytes, long nodeBytes, int buckets, int emptyBuckets, int entries) {
+        this(tableBytes, nodeBytes, buckets, emptyBuckets, entries, 0);
+    }
+
+    private MemoryFootprint(long tableBytes, long nodeBytes, int buckets, int emptyBuckets, int entries,
+                            long auxiliaryBytes) {
+        this.tableBytes = tableBytes;
+        this.nodeBytes = nodeBytes;
+        this.buckets = buckets;
+        this.emptyBuckets = emptyBuckets;
+        this.entries = entries;
+        this.auxiliaryBytes = auxiliaryBytes;
+    }
+
+    /**
+     * @return this footprint with the given bytes of an auxiliary structure added
+     */
+    MemoryFootprint plusAuxiliaryBytes(long bytes) {
+        return new MemoryFootprint(tableBytes, nodeBytes, buckets, emptyBuckets, entries, auxiliaryBytes + bytes);
+    }
+
+    public long getTableBytes() { return tableBytes; }
+
+    public long getNodeBytes() { return nodeBytes; }
+
+    public long getAuxiliaryBytes() { return auxiliaryBytes; }
+
+    public long getTotalBytes() { return tableBytes + nodeBytes + auxiliaryBytes; }
+
+    public int getBuckets() { return buckets; }
+
+    public int getEmptyBuckets() { return emptyBuckets; }
+
+    public int getEntries() { return entries; }
+
+    public double getEmptyBucketRatio() {
+        return buckets == 0 ? 0 : (double) emptyBuckets / buckets;
+    }
+
+    /**
+     * @return total bytes divided by the number of entries, or the total bytes of an empty map
+     */
+    public double getBytesPerEntry() {
+        return entries == 0 ? getTotalBytes() : (double) getTotalBytes() / entries;
+    }
+
+    @Override
+    public String toString() {
+        return "MemoryFootprint{" +
+                "tableBytes=" + tableBytes +
+                ", nodeBytes=" + nodeBytes +
+                ", auxiliaryBytes=" + auxiliaryBytes +
+                ", buckets=" + buckets +
+                ", emptyBuckets=" + emptyBuckets +
+                ", entries=" + entries +
+                ", bytesPerEntry=" + String.format("%.1f", getBytesPerEntry()) +
+                '}';
+    }
+}
@@ -0,0 +1,86 @@
+package com.endava.internship.collections;
+
+import com.sun.management.HotSpotDiagnosticMXBean;
+
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+
+/**
+ * Object size arithmetic for the running HotSpot JVM, following the layout rules JOL reports:
+ * object headers, reference width, field sizes and object alignment are read from the VM options.
+ * Outside HotSpot the defaults of a 64-bit JVM with compressed references are assumed.
+ */
+final class ObjectLayout {
+    static final ObjectLayout CURRENT = detect();
+
+    private final int objectHeaderBytes;
+    private final int arrayHeaderBytes;
+    private final int referenceBytes;
+    private final int alignmentBytes;
+    private final ClassValue<Long> instanceSizes = new ClassValue<Long>() {
+        @Override
+        protected Long computeValue(Class<?> type) {
+            return computeInstanceSize(type);
+        }
+    };
+
+    ObjectLayout(boolean compressedReferences, boolean compressedClassPointers, int alignmentBytes) {
+        this.objectHeaderBytes = compressedClassPointers ? 12 : 16;
+        this.arrayHeaderBytes = compressedClassPointers ? 16 : 20;
+        this.referenceBytes = compressedReferences ? 4 : 8;
+        this.alignmentBytes = alignmentBytes;
+    }
+
+    private static ObjectLayout detect() {
+        try {
+            HotSpotDiagnosticMXBean hotSpot = ManagementFactory.getPlatformMXBean(HotSpotDiagnosticMXBean.class);
+            boolean compressedReferences = Boolean.parseBoolean(hotSpot.getVMOption("UseCompressedOops").getValue());
+            boolean compressedClassPointers = Boolean.parseBoolean(hotSpot.getVMOption("UseCompressedClassPointers").getValue());
+            int alignmentBytes = Integer.parseInt(hotSpot.getVMOption("ObjectAlignmentInBytes").getValue());
+            return new ObjectLayout(compressedReferences, compressedClassPointers, alignmentBytes);
+        } catch (RuntimeException | LinkageError e) {
+            return new ObjectLayout(true, true, 8);
+        }
+    }
+
+    long referenceArraySize(int length) {
+        return primitiveArraySize(length, referenceBytes);
+    }
+
+    /**
+     * Array elements start at the first offset after the header aligned to the element size.
+     */
+    long primitiveArraySize(int length, int elementBytes) {
+        long elementsOffset = (arrayHeaderBytes + elementBytes - 1) / elementBytes * elementBytes;
+        return align(elementsOffset + (long) elementBytes * length);
+    }
+
+    long instanceSize(Class<?> type) {
+        return instanceSizes.get(type);
+    }
+
+    private long computeInstanceSize(Class<?> type) {
+        long fieldBytes = 0;
+        for (Class<?> current = type; current != null; current = current.getSuperclass()){
+            for (Field field : current.getDeclaredFields()) {
+                if (!Modifier.isStatic(field.getModifiers())){
+                    fieldBytes += fieldSize(field.getType());
+                }
+            }
+        }
+        return align(objectHeaderBytes + fieldBytes);
+    }
+
+    private int fieldSize(Class<?> type) {
+        if (!type.isPrimitive()) return referenceBytes;
+        if (type == long.class || type == double.class) return 8;
+        if (type == int.class || type == float.class) return 4;
+        if (type == short.class || type == char.class) return 2;
+        return 1;
+    }
+
+    private long align(long bytes) {
+        return (bytes + alignmentBytes - 1) / alignmentBytes * alignmentBytes;
+    }
+}
@@ -0,0 +1,215 @@
+package com.endava.internship.collections;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Entries ordered by an {@code int} value in a treap whose nodes also count their subtree,
+ * so the k highest entries, the rank of a value and the entry at a position are found in O(log n + k).
+ * Equal values are ordered by the sequence number each entry gets when it is created.
+ */
+final class OrderStatisticIndex<K> {
+
+    static final class Entry<K> {
+        private final K key;
+        private final long sequence;
+        private final int priority;
+        private int value;
+        private int size = 1;
+        private Entry<K> left;
+        private Entry<K> right;
+
+        private Entry(K key, int value, long sequence, int priority) {
+            this.key = key;
+            this.value = value;
+            this.sequence = sequence;
+            this.priority = priority;
+        }
+
+        K getKey() {
+            return key;
+        }
+    }
+
+    private Entry<K> root;
+    private long nextSequence = 0;
+    private int seed = 0x2545F491;
+
+    int size() {
+        return size(root);
+    }
+
+    /**
+     * @return the heap held by the index and its entries, without the keys
+     */
+    long estimatedMemoryBytes() {
+        ObjectLayout layout = ObjectLayout.CURRENT;
+        return layout.instanceSize(OrderStatisticIndex.class) + (long) size() * layout.instanceSize(Entry.class);
+    }
+
+    Entry<K> add(K key, int value) {
+        Entry<K> entry = new Entry<>(key, value, nextSequence++, nextPriority());
+        root = insert(root, entry);
+        return entry;
+    }
+
+    void remove(Entry<K> entry) {
+        root = delete(root, entry);
+        entry.left = entry.right = null;
+        entry.size = 1;
+    }
+
+    /**
+     * Moves the entry to the position of its new value.
+     */
+    void update(Entry<K> entry, int value) {
+        remove(entry);
+        entry.value = value;
+        root = insert(root, entry);
+    }
+
+    void clear() {
+        root = null;
+    }
+
+    /**
+     * @return the keys of the {@code k} entries with the highest values, highest first
+     */
+    List<K> highest(int k) {
+        List<K> keys = new ArrayList<>(Math.min(k, size()));
+        collectDescending(root, keys, k);
+        return keys;
+    }
+
+    /**
+     * @return the number of entries with a value above the given one
+     */
+    int countAbove(int value) {
+        int count = 0;
+        Entry<K> current = root;
+        while (current != null){
+            if (value < current.value){
+                count += 1 + size(current.right);
+                current = current.left;
+            } else {
+                current = current.right;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * @return the entry at the given zero-based position in ascending order
+     */
+    Entry<K> select(int position) {
+        Entry<K> current = root;
+        while (current != null){
+            int leftSize = size(current.left);
+            if (position < leftSize){
+                current = current.left;
+            } else if (position == leftSize){
+                return current;
+            } else {
+                position -= leftSize + 1;
+                current = current.right;
+            }
+        }
+        return null;
+    }
+
+    private void collectDescending(Entry<K> entry, List<K> keys, int k) {
+        if (entry == null || keys.size() >= k){
+            return;
+        }
+        collectDescending(entry.right, keys, k);
+        if (keys.size() < k){
+            keys.add(entry.key);
+            collectDescending(entry.left, keys, k);
+        }
+    }
+
+    private int nextPriority() {
+        seed ^= seed << 13;
+        seed ^= seed >>> 17;
+        seed ^= seed << 5;
+        return seed;
+    }
+
+    private static int size(Entry<?> entry) {
+        return entry == null ? 0 : entry.size;
+    }
+
+    private static boolean before(Entry<?> first, Entry<?> second) {
+        return first.value < second.value || (first.value == second.value && first.sequence < second.sequence);
+    }
+
+    private static <K> Entry<K> update(Entry<K> entry) {
+        entry.size = 1 + size(entry.left) + size(entry.right);
+        return entry;
+    }
+
+    private static <K> Entry<K> insert(Entry<K> subtree, Entry<K> entry) {
+        if (subtree == null){
+            return entry;
+        }
+        if (before(entry, subtree)){
+            subtree.left = insert(subtree.left, entry);
+            if (subtree.left.priority > subtree.priority){
+                return rotateRight(subtree);
+            }
+        } else {
+            subtree.right = insert(subtree.right, entry);
+            if (subtree.right.priority > subtree.priority){
+                return rotateLeft(subtree);
+            }
+        }
+        return update(subtree);
+    }
+
+    private static <K> Entry<K> delete(Entry<K> subtree, Entry<K> entry) {
+        if (subtree == null){
+            return null;
+        }
+        if (subtree == entry){
+            return merge(entry.left, entry.right);
+        }
+        if (before(entry, subtree)){
+            subtree.left = delete(subtree.left, entry);
+        } else {
+            subtree.right = delete(subtree.right, entry);
+        }
+        return update(subtree);
+    }
+
+    /**
+     * Joins two treaps where every entry of {@code left} comes before every entry of {@code right}.
+     */
+    private static <K> Entry<K> merge(Entry<K> left, Entry<K> right) {
+        if (left == null){
+            return right;
+        }
+        if (right == null){
+            return left;
+        }
+        if (left.priority > right.priority){
+            left.right = merge(left.right, right);
+            return update(left);
+        }
+        right.left = merge(left, right.left);
+        return update(right);
+    }
+
+    private static <K> Entry<K> rotateRight(Entry<K> entry) {
+        Entry<K> pivot = entry.left;
+        entry.left = pivot.right;
+        pivot.right = update(entry);
+        return update(pivot);
+    }
+
+    private static <K> Entry<K> rotateLeft(Entry<K> entry) {
+        Entry<K> pivot = entry.right;
+        entry.right = pivot.left;
+        pivot.left = update(entry);
+        return update(pivot);
+    }
+}
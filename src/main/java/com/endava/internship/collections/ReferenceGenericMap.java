@@ -0,0 +1,467 @@
+package com.endava.internship.collections;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.SoftReference;
+import java.lang.ref.WeakReference;
+import java.util.AbstractCollection;
+import java.util.AbstractSet;
+import java.util.Collection;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Map holding its keys through weak or soft references, for caches of data derived from the keys.
+ * Entries live in a {@link GenericMap} whose nodes hold a reference to the key instead of the key itself.
+ * Once the garbage collector clears a key, its entry is unlinked during the next operation on the map:
+ * cleared references are drained from a {@link ReferenceQueue}, so each stale entry costs one unlink
+ * instead of a sweep over the table.
+ */
+public class ReferenceGenericMap<K, V> implements Map<K, V> {
+    private static final Object NULL_KEY = new Object();
+
+    public enum ReferenceStrength {
+        /**
+         * Entries are dropped as soon as their key is no longer strongly reachable.
+         */
+        WEAK,
+        /**
+         * Entries are dropped when the key is only softly reachable and the heap runs short.
+         */
+        SOFT
+    }
+
+    /**
+     * Reference to a key, pointing back at the node holding it until the node is unlinked.
+     */
+    private interface KeyReference {
+        ReferenceNode<?> node();
+
+        void attach(ReferenceNode<?> node);
+    }
+
+    private static final class WeakKey extends WeakReference<Object> implements KeyReference {
+        private ReferenceNode<?> node;
+
+        private WeakKey(Object key, ReferenceQueue<Object> queue) {
+            super(key, queue);
+        }
+
+        @Override
+        public ReferenceNode<?> node() {
+            return node;
+        }
+
+        @Override
+        public void attach(ReferenceNode<?> node) {
+            this.node = node;
+        }
+    }
+
+    private static final class SoftKey extends SoftReference<Object> implements KeyReference {
+        private ReferenceNode<?> node;
+
+        private SoftKey(Object key, ReferenceQueue<Object> queue) {
+            super(key, queue);
+        }
+
+        @Override
+        public ReferenceNode<?> node() {
+            return node;
+        }
+
+        @Override
+        public void attach(ReferenceNode<?> node) {
+            this.node = node;
+        }
+    }
+
+    /**
+     * Node storing the key reference in place of the key; its key reads {@code null} once the key is cleared,
+     * so a stale node never matches a lookup.
+     */
+    private static final class ReferenceNode<V> extends GenericMap.Node<Object, V> {
+
+        private ReferenceNode(int hash, Reference<Object> keyReference, V value, GenericMap.Node<Object, V> next) {
+            super(hash, keyReference, value, next);
+            ((KeyReference) keyReference).attach(this);
+        }
+
+        @SuppressWarnings("unchecked")
+        private Reference<Object> keyReference(){
+            return (Reference<Object>) super.getKey();
+        }
+
+        @Override
+        public Object getKey() {
+            return keyReference().get();
+        }
+    }
+
+    /**
+     * Hashing of the masked keys, keeping the {@code null} key apart from the keys given to the strategy.
+     */
+    private static final class MaskedHashing implements Hashing<Object> {
+        private final Hashing<Object> keyHashing;
+
+        private MaskedHashing(Hashing<Object> keyHashing) {
+            this.keyHashing = keyHashing;
+        }
+
+        @Override
+        public int hash(Object key) {
+            return key == NULL_KEY ? 0 : keyHashing.hash(key);
+        }
+
+        @Override
+        public boolean equals(Object storedKey, Object key) {
+            return storedKey != NULL_KEY && key != NULL_KEY && keyHashing.equals(storedKey, key);
+        }
+    }
+
+    private final class Table extends GenericMap<Object, V> {
+
+        private Table(int initialCapacity, Hashing<Object> hashing) {
+            super(initialCapacity, hashing);
+        }
+
+        @Override
+        GenericMap.Node<Object, V> newNode(int hash, Object key, V value, GenericMap.Node<Object, V> next) {
+            return new ReferenceNode<>(hash, newKeyReference(key), value, next);
+        }
+
+        @Override
+        void afterNodeRemoval(GenericMap.Node<Object, V> node) {
+            super.afterNodeRemoval(node);
+            Reference<Object> keyReference = ((ReferenceNode<V>) node).keyReference();
+            ((KeyReference) keyReference).attach(null);
+            keyReference.clear();
+        }
+    }
+
+    private final ReferenceStrength referenceStrength;
+    private final Table table;
+    private ReferenceQueue<Object> queue = new ReferenceQueue<>();
+    /**
+     * Number of stale entries unlinked, which iterators do not count as changes of structure.
+     */
+    private int expungedCount = 0;
+
+    public ReferenceGenericMap(ReferenceStrength referenceStrength) {
+        this(GenericMap.DEFAULT_INITIAL_CAPACITY, referenceStrength);
+    }
+
+    public ReferenceGenericMap(int initialCapacity, ReferenceStrength referenceStrength) {
+        this(initialCapacity, referenceStrength, Hashing.natural());
+    }
+
+    @SuppressWarnings("unchecked")
+    public ReferenceGenericMap(int initialCapacity, ReferenceStrength referenceStrength, Hashing<? super K> hashing) {
+        if (initialCapacity < 0){
+            throw new IllegalArgumentException("Illegal initial capacity: " + initialCapacity);
+        }
+        if (referenceStrength == null){
+            throw new IllegalArgumentException("Reference strength must not be null");
+        }
+        if (hashing == null){
+            throw new IllegalArgumentException("Hashing strategy must not be null");
+        }
+        this.referenceStrength = referenceStrength;
+        this.table = new Table(initialCapacity, hashing == Hashing.natural()
+                ? Hashing.natural() : new MaskedHashing((Hashing<Object>) hashing));
+    }
+
+    private static Object maskNull(Object key){
+        return key == null ? NULL_KEY : key;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <K> K unmaskNull(Object key){
+        return key == NULL_KEY ? null : (K) key;
+    }
+
+    private Reference<Object> newKeyReference(Object maskedKey){
+        return referenceStrength == ReferenceStrength.WEAK
+                ? new WeakKey(maskedKey, queue)
+                : new SoftKey(maskedKey, queue);
+    }
+
+    /**
+     * Unlinks the entries whose keys were cleared since the last operation.
+     */
+    @SuppressWarnings("unchecked")
+    private void expungeStaleEntries(){
+        Reference<?> cleared;
+        while ((cleared = queue.poll()) != null){
+            ReferenceNode<V> node = (ReferenceNode<V>) ((KeyReference) cleared).node();
+            if (node != null){
+                table.removeNode(node);
+                ++expungedCount;
+            }
+        }
+    }
+
+    @Override
+    public int size() {
+        expungeStaleEntries();
+        return table.size();
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        expungeStaleEntries();
+        return table.containsKey(maskNull(key));
+    }
+
+    @Override
+    public boolean containsValue(Object value) {
+        for (V storedValue : values()) {
+            if (Objects.equals(storedValue, value)){
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public V get(Object key) {
+        expungeStaleEntries();
+        return table.get(maskNull(key));
+    }
+
+    @Override
+    public V put(K key, V value) {
+        expungeStaleEntries();
+        return table.put(maskNull(key), value);
+    }
+
+    @Override
+    public V remove(Object key) {
+        expungeStaleEntries();
+        return table.remove(maskNull(key));
+    }
+
+    @Override
+    public void putAll(Map<? extends K, ? extends V> map) {
+        for (Map.Entry<? extends K, ? extends V> entry : map.entrySet()) {
+            put(entry.getKey(), entry.getValue());
+        }
+    }
+
+    /**
+     * Drops the whole table; references of its keys cleared later go to the old queue and are never drained.
+     */
+    @Override
+    public void clear() {
+        queue = new ReferenceQueue<>();
+        table.clear();
+    }
+
+    @Override
+    public Set<K> keySet() {
+        return new AbstractSet<K>() {
+            @Override
+            public int size() {
+                return ReferenceGenericMap.this.size();
+            }
+
+            @Override
+            public boolean contains(Object o) {
+                return containsKey(o);
+            }
+
+            @Override
+            public Iterator<K> iterator() {
+                EntryIterator entries = new EntryIterator();
+                return new Iterator<K>() {
+                    @Override
+                    public boolean hasNext() {
+                        return entries.hasNext();
+                    }
+
+                    @Override
+                    public K next() {
+                        return entries.next().getKey();
+                    }
+
+                    @Override
+                    public void remove() {
+                        entries.remove();
+                    }
+                };
+            }
+        };
+    }
+
+    @Override
+    public Collection<V> values() {
+        return new AbstractCollection<V>() {
+            @Override
+            public int size() {
+                return ReferenceGenericMap.this.size();
+            }
+
+            @Override
+            public Iterator<V> iterator() {
+                EntryIterator entries = new EntryIterator();
+                return new Iterator<V>() {
+                    @Override
+                    public boolean hasNext() {
+                        return entries.hasNext();
+                    }
+
+                    @Override
+                    public V next() {
+                        return entries.next().getValue();
+                    }
+
+                    @Override
+                    public void remove() {
+                        entries.remove();
+                    }
+                };
+            }
+        };
+    }
+
+    /**
+     * @return a view of the entries backed by this map; removals through it and {@code setValue}
+     * on its entries are applied to the map
+     */
+    @Override
+    public Set<Map.Entry<K, V>> entrySet() {
+        return new AbstractSet<Map.Entry<K, V>>() {
+            @Override
+            public int size() {
+                return ReferenceGenericMap.this.size();
+            }
+
+            @Override
+            public Iterator<Map.Entry<K, V>> iterator() {
+                return new EntryIterator();
+            }
+
+            @Override
+            public void clear() {
+                ReferenceGenericMap.this.clear();
+            }
+        };
+    }
+
+    /**
+     * Iterator over the chains of the table. The key of the next entry is held strongly from {@code hasNext}
+     * until it is returned, so it cannot be cleared in between; entries cleared earlier are skipped.
+     * Stale entries unlinked by other operations are not a change of structure, other insertions and removals
+     * make it fail fast with {@link ConcurrentModificationException}.
+     */
+    private final class EntryIterator implements Iterator<Map.Entry<K, V>> {
+        private int bucketIndex = 0;
+        private GenericMap.Node<Object, V> nextNode;
+        private Object nextKey;
+        private GenericMap.Node<Object, V> lastReturned;
+        private int expectedModCount;
+
+        private EntryIterator() {
+            expungeStaleEntries();
+            expectedModCount = table.modCount() - expungedCount;
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (nextKey == null){
+                if (nextNode != null){
+                    nextNode = nextNode.getNext();
+                }
+                while (nextNode == null && bucketIndex < table.bucketCount()){
+                    nextNode = table.bucketHead(bucketIndex++);
+                }
+                if (nextNode == null){
+                    return false;
+                }
+                nextKey = nextNode.getKey();
+            }
+            return true;
+        }
+
+        @Override
+        public Map.Entry<K, V> next() {
+            if (table.modCount() - expungedCount != expectedModCount){
+                throw new ConcurrentModificationException();
+            }
+            if (!hasNext()){
+                throw new NoSuchElementException();
+            }
+            lastReturned = nextNode;
+            Map.Entry<K, V> entry = new ReferenceEntry(unmaskNull(nextKey), nextNode);
+            nextKey = null;
+            return entry;
+        }
+
+        @Override
+        public void remove() {
+            if (lastReturned == null){
+                throw new IllegalStateException();
+            }
+            if (table.modCount() - expungedCount != expectedModCount){
+                throw new ConcurrentModificationException();
+            }
+            if (lastReturned.getKey() != null){
+                table.removeNode(lastReturned);
+                expectedModCount = table.modCount() - expungedCount;
+            }
+            lastReturned = null;
+        }
+    }
+
+    /**
+     * Entry holding its key strongly and writing values through to the node.
+     */
+    private final class ReferenceEntry implements Map.Entry<K, V> {
+        private final K key;
+        private final GenericMap.Node<Object, V> node;
+
+        private ReferenceEntry(K key, GenericMap.Node<Object, V> node) {
+            this.key = key;
+            this.node = node;
+        }
+
+        @Override
+        public K getKey() {
+            return key;
+        }
+
+        @Override
+        public V getValue() {
+            return node.getValue();
+        }
+
+        @Override
+        public V setValue(V value) {
+            V oldValue = node.getValue();
+            node.setValue(value);
+            return oldValue;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Map.Entry)) return false;
+            Map.Entry<?, ?> entry = (Map.Entry<?, ?>) o;
+            return Objects.equals(key, entry.getKey()) && Objects.equals(getValue(), entry.getValue());
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hashCode(key) ^ Objects.hashCode(getValue());
+        }
+    }
+}
@@ -0,0 +1,299 @@
+package com.endava.internship.collections;
+
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A map whose keys are partitioned across independent shards by rendezvous hashing.
+ * Every shard resizes on its own, and adding a shard only moves the keys that the new shard wins.
+ * Operations on different shards can run concurrently when the shards are thread-safe, as local shards are;
+ * {@link #addShard(Shard)} must not run concurrently with other operations.
+ */
+public class ShardedGenericMap<K, V> implements Map<K, V> {
+
+    /**
+     * Storage for one partition of the keys. Implementations may keep the entries in another process;
+     * {@link #local(String)} keeps them in a {@link GenericMap} of this process.
+     */
+    public interface Shard<K, V> {
+        /**
+         * @return identifier of the shard, stable across restarts, used to place keys
+         */
+        String id();
+
+        V get(Object key);
+
+        V put(K key, V value);
+
+        V remove(Object key);
+
+        boolean containsKey(Object key);
+
+        boolean containsValue(Object value);
+
+        int size();
+
+        void clear();
+
+        /**
+         * @return a copy of the entries currently held by the shard
+         */
+        Map<K, V> entries();
+    }
+
+    private static final class LocalShard<K, V> implements Shard<K, V> {
+        private final String id;
+        private final GenericMap<K, V> map = new GenericMap<>();
+
+        private LocalShard(String id) {
+            this.id = id;
+        }
+
+        @Override
+        public String id() {
+            return id;
+        }
+
+        @Override
+        public synchronized V get(Object key) {
+            return map.get(key);
+        }
+
+        @Override
+        public synchronized V put(K key, V value) {
+            return map.put(key, value);
+        }
+
+        @Override
+        public synchronized V remove(Object key) {
+            return map.remove(key);
+        }
+
+        @Override
+        public synchronized boolean containsKey(Object key) {
+            return map.containsKey(key);
+        }
+
+        @Override
+        public synchronized boolean containsValue(Object value) {
+            return map.containsValue(value);
+        }
+
+        @Override
+        public synchronized int size() {
+            return map.size();
+        }
+
+        @Override
+        public synchronized void clear() {
+            map.clear();
+        }
+
+        @Override
+        public synchronized Map<K, V> entries() {
+            GenericMap<K, V> copy = new GenericMap<>(map.size() * 2);
+            copy.putAll(map);
+            return copy;
+        }
+    }
+
+    /**
+     * Shards with their placement seeds, replaced as a whole so readers never see a mix of both.
+     */
+    private static final class Placement<K, V> {
+        private final Shard<K, V>[] shards;
+        private final int[] seeds;
+
+        private Placement(Shard<K, V>[] shards) {
+            this.shards = shards;
+            this.seeds = new int[shards.length];
+            for (int i = 0; i < shards.length; ++i){
+                seeds[i] = mix(shards[i].id().hashCode());
+            }
+        }
+    }
+
+    private volatile Placement<K, V> placement;
+
+    public ShardedGenericMap(int shardCount) {
+        if (shardCount <= 0){
+            throw new IllegalArgumentException("Illegal shard count: " + shardCount);
+        }
+        Shard<K, V>[] localShards = createShardArray(shardCount);
+        for (int i = 0; i < shardCount; ++i){
+            localShards[i] = local("shard-" + i);
+        }
+        placement = new Placement<>(localShards);
+    }
+
+    @SafeVarargs
+    public ShardedGenericMap(Shard<K, V>... shards) {
+        if (shards.length == 0){
+            throw new IllegalArgumentException("At least one shard is required");
+        }
+        Shard<K, V>[] copies = createShardArray(shards.length);
+        for (int i = 0; i < shards.length; ++i){
+            requireUniqueId(copies, i, shards[i]);
+            copies[i] = shards[i];
+        }
+        placement = new Placement<>(copies);
+    }
+
+    public static <K, V> Shard<K, V> local(String id) {
+        return new LocalShard<>(id);
+    }
+
+    public int shardCount() {
+        return placement.shards.length;
+    }
+
+    /**
+     * Adds a shard and moves to it every key it now wins. Keys never move between the old shards.
+     */
+    public synchronized void addShard(Shard<K, V> shard) {
+        Shard<K, V>[] oldShards = placement.shards;
+        requireUniqueId(oldShards, oldShards.length, shard);
+        Shard<K, V>[] newShards = Arrays.copyOf(oldShards, oldShards.length + 1);
+        newShards[oldShards.length] = shard;
+        placement = new Placement<>(newShards);
+
+        for (Shard<K, V> existing : oldShards) {
+            for (Map.Entry<K, V> entry : existing.entries().entrySet()) {
+                if (shardFor(entry.getKey()) == shard){
+                    shard.put(entry.getKey(), entry.getValue());
+                    existing.remove(entry.getKey());
+                }
+            }
+        }
+    }
+
+    private static <K, V> void requireUniqueId(Shard<K, V>[] shards, int count, Shard<K, V> shard) {
+        for (int i = 0; i < count; ++i){
+            if (shards[i].id().equals(shard.id())){
+                throw new IllegalArgumentException("Duplicate shard id: " + shard.id());
+            }
+        }
+    }
+
+    /**
+     * Rendezvous hashing: the key goes to the shard with the highest combined score.
+     */
+    private Shard<K, V> shardFor(Object key) {
+        Placement<K, V> current = placement;
+        int keyHash = key == null ? 0 : key.hashCode();
+        int winner = 0;
+        int bestScore = Integer.MIN_VALUE;
+        for (int i = 0; i < current.shards.length; ++i){
+            int score = mix(keyHash ^ current.seeds[i]);
+            if (score > bestScore || i == 0){
+                bestScore = score;
+                winner = i;
+            }
+        }
+        return current.shards[winner];
+    }
+
+    private static int mix(int hash) {
+        hash *= 0x9E3779B9;
+        hash ^= hash >>> 16;
+        hash *= 0x85EBCA6B;
+        return hash ^ (hash >>> 13);
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static <K, V> Shard<K, V>[] createShardArray(int length) {
+        return (Shard<K, V>[]) new Shard[length];
+    }
+
+    @Override
+    public int size() {
+        int size = 0;
+        for (Shard<K, V> shard : placement.shards) {
+            size += shard.size();
+        }
+        return size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return shardFor(key).containsKey(key);
+    }
+
+    @Override
+    public boolean containsValue(Object value) {
+        for (Shard<K, V> shard : placement.shards) {
+            if (shard.containsValue(value)){
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public V get(Object key) {
+        return shardFor(key).get(key);
+    }
+
+    @Override
+    public V put(K key, V value) {
+        return shardFor(key).put(key, value);
+    }
+
+    @Override
+    public V remove(Object key) {
+        return shardFor(key).remove(key);
+    }
+
+    @Override
+    public void putAll(Map<? extends K, ? extends V> map) {
+        for (Map.Entry<? extends K, ? extends V> entry : map.entrySet()) {
+            put(entry.getKey(), entry.getValue());
+        }
+    }
+
+    @Override
+    public void clear() {
+        for (Shard<K, V> shard : placement.shards) {
+            shard.clear();
+        }
+    }
+
+    @Override
+    public Set<K> keySet() {
+        Set<K> keySet = new HashSet<>();
+        for (Shard<K, V> shard : placement.shards) {
+            keySet.addAll(shard.entries().keySet());
+        }
+        return keySet;
+    }
+
+    @Override
+    public Collection<V> values() {
+        Collection<V> values = new ArrayList<>();
+        for (Shard<K, V> shard : placement.shards) {
+            values.addAll(shard.entries().values());
+        }
+        return values;
+    }
+
+    @Override
+    public Set<Map.Entry<K, V>> entrySet() {
+        Set<Map.Entry<K, V>> entrySet = new HashSet<>();
+        for (Shard<K, V> shard : placement.shards) {
+            for (Map.Entry<K, V> entry : shard.entries().entrySet()) {
+                entrySet.add(new AbstractMap.SimpleEntry<>(entry.getKey(), entry.getValue()));
+            }
+        }
+        return entrySet;
+    }
+}
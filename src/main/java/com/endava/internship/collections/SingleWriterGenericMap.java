@@ -0,0 +1,243 @@
+package com.endava.internship.collections;
+
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Chained hash map written by one thread and read by any number of others without locks.
+ * Readers never block and never retry: they take the current table from a volatile field and walk
+ * its chains, whose links and values are volatile, so every node is seen fully constructed.
+ * The writer publishes new nodes at the chain heads, unlinks removed ones without breaking the chains
+ * readers may be walking, and grows the table by copying the nodes into a new one before swapping it in.
+ * All mutating methods must be called from the same thread, or be externally serialized.
+ */
+public class SingleWriterGenericMap<K, V> implements Map<K, V> {
+    private static final int DEFAULT_INITIAL_CAPACITY = 16;
+    private static final float DEFAULT_LOAD_FACTOR = 0.75f;
+    private static final int MAXIMUM_CAPACITY = 1 << 30;
+
+    static final class Node<K, V> {
+        private final int hash;
+        private final K key;
+        private volatile V value;
+        private volatile Node<K, V> next;
+
+        Node(int hash, K key, V value, Node<K, V> next) {
+            this.hash = hash;
+            this.key = key;
+            this.value = value;
+            this.next = next;
+        }
+    }
+
+    private volatile AtomicReferenceArray<Node<K, V>> buckets;
+    private volatile int size = 0;
+
+    public SingleWriterGenericMap() {
+        this(DEFAULT_INITIAL_CAPACITY);
+    }
+
+    public SingleWriterGenericMap(int initialCapacity) {
+        if (initialCapacity < 0){
+            throw new IllegalArgumentException("Illegal initial capacity: " + initialCapacity);
+        }
+        buckets = new AtomicReferenceArray<>(tableSizeFor(initialCapacity));
+    }
+
+    private static int tableSizeFor(int capacity){
+        if (capacity <= DEFAULT_INITIAL_CAPACITY){
+            return DEFAULT_INITIAL_CAPACITY;
+        }
+        if (capacity >= MAXIMUM_CAPACITY){
+            return MAXIMUM_CAPACITY;
+        }
+        int powerOfTwo = Integer.highestOneBit(capacity);
+        return powerOfTwo < capacity ? powerOfTwo << 1 : powerOfTwo;
+    }
+
+    private static int hash(Object key){
+        if (key == null){
+            return 0;
+        }
+        int hash = key.hashCode();
+        return hash ^ (hash >>> 16);
+    }
+
+    private Node<K, V> findNode(Object key, int hash){
+        AtomicReferenceArray<Node<K, V>> table = buckets;
+        Node<K, V> currentNode = table.get(hash & (table.length() - 1));
+        while (currentNode != null){
+            if (currentNode.hash == hash && Objects.equals(currentNode.key, key)){
+                return currentNode;
+            }
+            currentNode = currentNode.next;
+        }
+        return null;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return findNode(key, hash(key)) != null;
+    }
+
+    @Override
+    public boolean containsValue(Object value) {
+        AtomicReferenceArray<Node<K, V>> table = buckets;
+        for (int bucketIndex = 0; bucketIndex < table.length(); ++bucketIndex){
+            for (Node<K, V> currentNode = table.get(bucketIndex); currentNode != null; currentNode = currentNode.next){
+                if (Objects.equals(currentNode.value, value)){
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public V get(Object key) {
+        Node<K, V> node = findNode(key, hash(key));
+        return node == null ? null : node.value;
+    }
+
+    @Override
+    public V put(K key, V value) {
+        int hash = hash(key);
+        Node<K, V> existingNode = findNode(key, hash);
+        if (existingNode != null){
+            V oldValue = existingNode.value;
+            existingNode.value = value;
+            return oldValue;
+        }
+
+        if (size + 1 >= buckets.length() * DEFAULT_LOAD_FACTOR){
+            rehash();
+        }
+        AtomicReferenceArray<Node<K, V>> table = buckets;
+        int bucketIndex = hash & (table.length() - 1);
+        table.set(bucketIndex, new Node<>(hash, key, value, table.get(bucketIndex)));
+        ++size;
+        return null;
+    }
+
+    /**
+     * Copies every node into a table of double length and only then publishes it, so readers still
+     * walking the old table keep seeing all of its entries. The copies keep the order of their chains.
+     */
+    private void rehash(){
+        AtomicReferenceArray<Node<K, V>> oldBuckets = buckets;
+        if (oldBuckets.length() >= MAXIMUM_CAPACITY){
+            return;
+        }
+        AtomicReferenceArray<Node<K, V>> newBuckets = new AtomicReferenceArray<>(oldBuckets.length() * 2);
+        int newMask = newBuckets.length() - 1;
+        for (int bucketIndex = 0; bucketIndex < oldBuckets.length(); ++bucketIndex){
+            Node<K, V> lowTail = null, highTail = null;
+            for (Node<K, V> node = oldBuckets.get(bucketIndex); node != null; node = node.next){
+                Node<K, V> copy = new Node<>(node.hash, node.key, node.value, null);
+                if ((node.hash & newMask) == bucketIndex){
+                    if (lowTail == null){
+                        newBuckets.lazySet(bucketIndex, copy);
+                    } else {
+                        lowTail.next = copy;
+                    }
+                    lowTail = copy;
+                } else {
+                    if (highTail == null){
+                        newBuckets.lazySet(bucketIndex + oldBuckets.length(), copy);
+                    } else {
+                        highTail.next = copy;
+                    }
+                    highTail = copy;
+                }
+            }
+        }
+        buckets = newBuckets;
+    }
+
+    @Override
+    public V remove(Object key) {
+        int hash = hash(key);
+        AtomicReferenceArray<Node<K, V>> table = buckets;
+        int bucketIndex = hash & (table.length() - 1);
+        Node<K, V> previous = null;
+        for (Node<K, V> currentNode = table.get(bucketIndex); currentNode != null; currentNode = currentNode.next){
+            if (currentNode.hash == hash && Objects.equals(currentNode.key, key)){
+                //the removed node keeps its link, so a reader standing on it still reaches the rest of the chain
+                if (previous == null){
+                    table.set(bucketIndex, currentNode.next);
+                } else {
+                    previous.next = currentNode.next;
+                }
+                --size;
+                return currentNode.value;
+            }
+            previous = currentNode;
+        }
+        return null;
+    }
+
+    @Override
+    public void putAll(Map<? extends K, ? extends V> map) {
+        for (Map.Entry<? extends K, ? extends V> entry : map.entrySet()) {
+            put(entry.getKey(), entry.getValue());
+        }
+    }
+
+    @Override
+    public void clear() {
+        buckets = new AtomicReferenceArray<>(DEFAULT_INITIAL_CAPACITY);
+        size = 0;
+    }
+
+    @Override
+    public Set<K> keySet() {
+        Set<K> keySet = new HashSet<>();
+        AtomicReferenceArray<Node<K, V>> table = buckets;
+        for (int bucketIndex = 0; bucketIndex < table.length(); ++bucketIndex){
+            for (Node<K, V> currentNode = table.get(bucketIndex); currentNode != null; currentNode = currentNode.next){
+                keySet.add(currentNode.key);
+            }
+        }
+        return keySet;
+    }
+
+    @Override
+    public Collection<V> values() {
+        Collection<V> values = new ArrayList<>();
+        AtomicReferenceArray<Node<K, V>> table = buckets;
+        for (int bucketIndex = 0; bucketIndex < table.length(); ++bucketIndex){
+            for (Node<K, V> currentNode = table.get(bucketIndex); currentNode != null; currentNode = currentNode.next){
+                values.add(currentNode.value);
+            }
+        }
+        return values;
+    }
+
+    @Override
+    public Set<Map.Entry<K, V>> entrySet() {
+        Set<Map.Entry<K, V>> entrySet = new HashSet<>();
+        AtomicReferenceArray<Node<K, V>> table = buckets;
+        for (int bucketIndex = 0; bucketIndex < table.length(); ++bucketIndex){
+            for (Node<K, V> currentNode = table.get(bucketIndex); currentNode != null; currentNode = currentNode.next){
+                entrySet.add(new AbstractMap.SimpleEntry<>(currentNode.key, currentNode.value));
+            }
+        }
+        return entrySet;
+    }
+}
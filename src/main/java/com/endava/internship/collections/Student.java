@@ -5,6 +5,23 @@ import java.util.Objects;
 
 public class Student
 {
+    /**
+     * Hashing of student keys that skips the class checks of {@link #equals(Object)};
+     * callers make sure the looked up key is a {@code Student}.
+     */
+    static final Hashing<Student> HASHING = new Hashing<Student>() {
+        @Override
+        public int hash(Object key) {
+            return key.hashCode();
+        }
+
+        @Override
+        public boolean equals(Student storedKey, Object key) {
+            Student student = (Student) key;
+            return Objects.equals(storedKey.name, student.name) && Objects.equals(storedKey.dateOfBirth, student.dateOfBirth);
+        }
+    };
+
     private String name;
     private LocalDate dateOfBirth;
     private String details;
@@ -31,7 +48,7 @@ public class Student
 
     @Override
     public int hashCode() {
-        return Objects.hash(name, dateOfBirth);
+        return 31 * (31 + Objects.hashCode(name)) + Objects.hashCode(dateOfBirth);
     }
 
     @Override
@@ -0,0 +1,109 @@
+package com.endava.internship.collections;
+
+import java.time.LocalDate;
+
+/**
+ * Canonicalizes student keys for the compact {@link StudentMap.KeyStorage} modes.
+ * Names are interned and birth dates are shared per epoch day, so equal names and dates
+ * are held once however many keys use them. Every pooled value counts the stored keys
+ * referring to it and is dropped from the pool when the last of them is released.
+ */
+final class StudentKeyPool {
+    private final boolean keepDetails;
+    private final Pool<String> names = new Pool<>();
+    private final Pool<LocalDate> dates = new Pool<>();
+
+    /**
+     * Pool node counting the stored keys that share its name or date.
+     */
+    private static final class CountedNode<T> extends GenericMap.Node<T, Object> {
+        private int references;
+
+        CountedNode(int hash, T key, Object value, GenericMap.Node<T, Object> next) {
+            super(hash, key, value, next);
+        }
+    }
+
+    private static final class Pool<T> extends GenericMap<T, Object> {
+
+        @Override
+        GenericMap.Node<T, Object> newNode(int hash, T key, Object value, GenericMap.Node<T, Object> next) {
+            return new CountedNode<>(hash, key, value, next);
+        }
+
+        T acquire(T value){
+            if (value == null){
+                return null;
+            }
+            CountedNode<T> node = (CountedNode<T>) getNode(value);
+            if (node == null){
+                put(value, null);
+                node = (CountedNode<T>) getNode(value);
+            }
+            ++node.references;
+            return node.getKey();
+        }
+
+        void release(T value){
+            if (value == null){
+                return;
+            }
+            CountedNode<T> node = (CountedNode<T>) getNode(value);
+            if (node != null && --node.references == 0){
+                remove(value);
+            }
+        }
+    }
+
+    StudentKeyPool(boolean keepDetails) {
+        this.keepDetails = keepDetails;
+    }
+
+    /**
+     * @return an equal key sharing the pooled name and date, counted as a reference until {@link #release(Student)}
+     */
+    Student compact(Student key){
+        if (key == null){
+            return null;
+        }
+        String name = names.acquire(key.getName());
+        LocalDate dateOfBirth = dates.acquire(key.getDateOfBirth());
+        String details = keepDetails ? key.getDetails() : null;
+
+        if (name == key.getName() && dateOfBirth == key.getDateOfBirth() && details == key.getDetails()){
+            return key;
+        }
+        return new Student(name, dateOfBirth, details);
+    }
+
+    /**
+     * Drops the references of a key returned by {@link #compact(Student)} that is no longer stored.
+     */
+    void release(Student key){
+        if (key == null){
+            return;
+        }
+        names.release(key.getName());
+        dates.release(key.getDateOfBirth());
+    }
+
+    /**
+     * @return the heap held by the tables and nodes of both pools, without the pooled names and dates
+     */
+    long estimatedMemoryBytes(){
+        return names.estimatedMemoryBytes() + dates.estimatedMemoryBytes();
+    }
+
+    int pooledNames(){
+        return names.size();
+    }
+
+    int pooledDates(){
+        return dates.size();
+    }
+
+    void clear(){
+        names.clear();
+        dates.clear();
+    }
+}
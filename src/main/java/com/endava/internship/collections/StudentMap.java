@@ -1,54 +1,39 @@
 package com.endava.internship.collections;
 
-import java.util.AbstractMap;
-import java.util.ArrayList;
-import java.util.Collection;
-import java.util.HashSet;
-import java.util.Map;
-import java.util.Objects;
-import java.util.Set;
+import java.util.List;
 
-public class StudentMap implements Map<Student, Integer> {
+/**
+ * {@link GenericMap} specialized for {@link Student} keys. Lookups reject keys of any other type
+ * and use the student's own hashing. An optional index ordered by value answers top-k, rank
+ * and percentile queries without scanning the map.
+ */
+public class StudentMap extends GenericMap<Student, Integer> {
 
-    private static final int DEFAULT_INITIAL_CAPACITY = 16;
-    private static final float DEFAULT_LOAD_FACTOR = 0.75f;
-    private Node[] buckets;
-    private int size = 0;
+    private final StudentKeyPool keyPool;
+    private OrderStatisticIndex<Student> valueIndex;
 
-    static class Node {
-        private final Student key;
-        private Integer value;
-        private Node next;
+    /**
+     * Node remembering its entry in the value index, so the entry is found without searching the index.
+     */
+    static final class IndexedNode extends GenericMap.Node<Student, Integer> {
+        private OrderStatisticIndex.Entry<Student> indexEntry;
 
-        public Node(Student key, Integer value) {
-            this(key,  value, null);
-        }
-
-        public Node(Student key, Integer value, Node next) {
-            this.key = key;
-            this.value = value;
-            this.next = next;
-        }
-
-        public Student getKey() {
-            return key;
-        }
-
-        public Integer getValue() {
-            return value;
-        }
-
-        public void setValue(Integer value) {
-            this.value = value;
-        }
-
-        public Node getNext() {
-            return next;
+        IndexedNode(int hash, Student key, Integer value, GenericMap.Node<Student, Integer> next) {
+            super(hash, key, value, next);
         }
+    }
 
-        public void setNext(Node next) {
-            this.next = next;
-        }
+    /**
+     * How student keys are retained by the map. Compact modes share equal names and birth dates
+     * between all stored keys; the students returned from the views stay equal to the ones put.
+     * Every distinct name and date costs a pool node and table slot, counted in {@link StudentMap#memoryFootprint()},
+     * so compact storage pays off only when names repeat between keys; with unique names it costs more
+     * than {@code STANDARD}.
+     */
+    public enum KeyStorage {
+        STANDARD,
+        COMPACT,
+        COMPACT_WITHOUT_DETAILS
     }
 
     public StudentMap() {
@@ -56,216 +41,194 @@ public class StudentMap implements Map<Student, Integer> {
     }
 
     public StudentMap(int initialCapacity){
-        if (initialCapacity < 0){
-            throw new IllegalArgumentException("Illegal initial capacity: " + initialCapacity);
-        }
+        this(initialCapacity, KeyStorage.STANDARD);
+    }
 
-        if (initialCapacity < DEFAULT_INITIAL_CAPACITY){
-            buckets = new Node[DEFAULT_INITIAL_CAPACITY];
-        } else {
-            buckets = new Node[initialCapacity];
+    public StudentMap(int initialCapacity, KeyStorage keyStorage){
+        super(initialCapacity, Student.HASHING);
+
+        if (keyStorage == null){
+            throw new IllegalArgumentException("Key storage must not be null");
         }
+        keyPool = keyStorage == KeyStorage.STANDARD
+                ? null
+                : new StudentKeyPool(keyStorage == KeyStorage.COMPACT);
     }
 
-    private int hashIndex(Student key){
-        return key == null ? 0 : Math.abs(key.hashCode() % buckets.length);
+    @Override
+    GenericMap.Node<Student, Integer> newNode(int hash, Student key, Integer value, GenericMap.Node<Student, Integer> next){
+        return new IndexedNode(hash, keyPool == null ? key : keyPool.compact(key), value, next);
     }
 
     @Override
-    public int size() {
-        return size;
+    void afterNodeInsertion(GenericMap.Node<Student, Integer> node) {
+        super.afterNodeInsertion(node);
+        if (valueIndex != null){
+            reindex((IndexedNode) node);
+        }
     }
 
     @Override
-    public boolean isEmpty() {
-        return size == 0;
+    void afterNodeRewrite(GenericMap.Node<Student, Integer> node, Integer oldValue) {
+        super.afterNodeRewrite(node, oldValue);
+        if (valueIndex != null){
+            reindex((IndexedNode) node);
+        }
     }
 
     @Override
-    public boolean containsKey(Object key) {
-        if (key == null || key instanceof Student){
-            for (Node currentNode : buckets) {
-                while (currentNode != null){
-                    if (Objects.equals(currentNode.getKey(), key)){
-                        return true;
-                    }
-                    currentNode = currentNode.next;
-                }
-            }
-            return false;
+    void afterNodeRemoval(GenericMap.Node<Student, Integer> node) {
+        super.afterNodeRemoval(node);
+        if (keyPool != null){
+            keyPool.release(node.getKey());
+        }
+        IndexedNode indexedNode = (IndexedNode) node;
+        if (valueIndex != null && indexedNode.indexEntry != null){
+            valueIndex.remove(indexedNode.indexEntry);
+            indexedNode.indexEntry = null;
         }
-        throw new IllegalArgumentException("Key is not instance of Integer: " + key);
     }
 
     @Override
-    public boolean containsValue(Object value) {
-        if (value == null || value instanceof Integer){
-            for (Node currentNode : buckets) {
-                while (currentNode != null){
-                    if (Objects.equals(currentNode.getValue(), value)){
-                        return true;
-                    }
-                    currentNode = currentNode.next;
-                }
-            }
-            return false;
-        }
-        throw new IllegalArgumentException("Value is not instance of Integer: " + value);
+    boolean requiresOrderedMutations() {
+        return super.requiresOrderedMutations() || valueIndex != null || keyPool != null;
     }
 
+    /**
+     * @return the footprint of the table and nodes, plus the key pool of the compact storage modes
+     * and the value index once it is enabled
+     */
     @Override
-    public Integer get(Object key) {
-        if (key == null || key instanceof Student){
-            int bucketIndex = hashIndex((Student) key);
-            return getFromBucket((Student) key, bucketIndex);
+    public MemoryFootprint memoryFootprint() {
+        MemoryFootprint footprint = super.memoryFootprint();
+        if (keyPool != null){
+            footprint = footprint.plusAuxiliaryBytes(keyPool.estimatedMemoryBytes());
         }
-        throw new IllegalArgumentException("Key is not instance of Student: " + key);
+        if (valueIndex != null){
+            footprint = footprint.plusAuxiliaryBytes(valueIndex.estimatedMemoryBytes());
+        }
+        return footprint;
+    }
+
+    StudentKeyPool getKeyPool(){
+        return keyPool;
     }
 
-    private Integer getFromBucket(Student key, int bucketIndex){
-        Node currentNode = buckets[bucketIndex];
-        while (currentNode != null){
-            if (Objects.equals(currentNode.getKey(), key)){
-                return currentNode.getValue();
+    /**
+     * Brings the index entry of the node in line with its value; {@code null} values are not indexed.
+     */
+    private void reindex(IndexedNode node){
+        Integer value = node.getValue();
+        if (node.indexEntry == null){
+            if (value != null){
+                node.indexEntry = valueIndex.add(node.getKey(), value);
             }
-            currentNode = currentNode.next;
+        } else if (value == null){
+            valueIndex.remove(node.indexEntry);
+            node.indexEntry = null;
+        } else {
+            valueIndex.update(node.indexEntry, value);
         }
-
-        return null;
     }
 
-    @Override
-    public Integer put(Student key, Integer value) {
-        int bucketIndex = hashIndex(key);
-        return putInBucket(key, value, bucketIndex);
+    /**
+     * Starts keeping the students ordered by their values, updated on every mutation of the map,
+     * for {@link #topK(int)}, {@link #rankOf(Student)} and {@link #percentile(double)}.
+     */
+    public void enableValueIndex(){
+        if (valueIndex != null){
+            return;
+        }
+        valueIndex = new OrderStatisticIndex<>();
+        forEachNode(node -> reindex((IndexedNode) node));
     }
 
-    private Integer putInBucket(Student key, Integer value, int bucketIndex){
-        if (bucketIndex < 0 || bucketIndex > buckets.length){
-            throw new IndexOutOfBoundsException("Bucket Index out of bounds: " + bucketIndex);
-        }
+    public void disableValueIndex(){
+        valueIndex = null;
+        forEachNode(node -> ((IndexedNode) node).indexEntry = null);
+    }
 
-        if (size + 1 >= buckets.length * DEFAULT_LOAD_FACTOR){
-            rehash();
+    private OrderStatisticIndex<Student> requireValueIndex(){
+        if (valueIndex == null){
+            throw new IllegalStateException("Value index is not enabled");
         }
+        return valueIndex;
+    }
 
-        Node newNode = new Node(key, value);
-        if (buckets[bucketIndex] == null){
-            buckets[bucketIndex] = newNode;
-        }
-        else {
-            Node currentNode = buckets[bucketIndex];
-            if (Objects.equals(currentNode.getKey(), key)){
-                return rewriteEntry(currentNode, value);
-            }
-            while (currentNode.next != null){
-                if (Objects.equals(currentNode.getKey(), key)){
-                    return rewriteEntry(currentNode, value);
-                }
-                currentNode = currentNode.next;
-            }
-            currentNode.setNext(newNode);
+    /**
+     * @return up to {@code k} students with the highest values, highest first
+     */
+    public List<Student> topK(int k){
+        if (k < 0){
+            throw new IllegalArgumentException("Illegal number of students: " + k);
         }
-        ++size;
-        return null;
+        return requireValueIndex().highest(k);
     }
 
-    private Integer rewriteEntry(Node node, Integer newValue){
-        Integer oldValue = node.getValue();
-        node.setValue(newValue);
-        return oldValue;
+    /**
+     * @return one plus the number of students with a higher value, or -1 if the student is absent or has no value
+     */
+    public int rankOf(Student student){
+        OrderStatisticIndex<Student> index = requireValueIndex();
+        Integer value = get(student);
+        return value == null ? -1 : index.countAbove(value) + 1;
     }
 
-    private void rehash(){
-        Node[] oldBuckets = buckets;
-        size = 0;
-        buckets = new Node[buckets.length * 2];
-
-        for (Node node : oldBuckets) {
-            while (node != null){
-                put(node.getKey(), node.getValue());
-                node = node.next;
-            }
+    /**
+     * @param percentile between 0 and 100
+     * @return the student at the given percentile of the values by the nearest-rank method,
+     * or {@code null} if no student has a value
+     */
+    public Student percentile(double percentile){
+        if (!(percentile >= 0 && percentile <= 100)){
+            throw new IllegalArgumentException("Illegal percentile: " + percentile);
+        }
+        OrderStatisticIndex<Student> index = requireValueIndex();
+        if (index.size() == 0){
+            return null;
         }
+        int position = Math.max(1, (int) Math.ceil(percentile / 100 * index.size()));
+        return index.select(position - 1).getKey();
     }
 
-    @Override
-    public Integer remove(Object key) {
+    private static Object requireStudent(Object key){
         if (key == null || key instanceof Student){
-            int bucketIndex = hashIndex((Student) key);
-            return removeFromBucket((Student) key, bucketIndex);
+            return key;
         }
-
         throw new IllegalArgumentException("Key is not instance of Student: " + key);
     }
 
-    private Integer removeFromBucket(Student key, int bucketIndex){
-        Node currentNode = buckets[bucketIndex];
-        if (currentNode != null){
-            if (Objects.equals(currentNode.getKey(), key)){
-                buckets[bucketIndex] = currentNode.next;
-                --size;
-                return currentNode.getValue();
-            }
-            while (currentNode.next != null){
-                if (Objects.equals(currentNode.next.getKey(), key)){
-                    Integer valueToDelete = currentNode.next.getValue();
-                    currentNode.next = currentNode.next.next;
-                    --size;
-                    return valueToDelete;
-                }
-                currentNode = currentNode.next;
-            }
-        }
-        return null;
+    @Override
+    public boolean containsKey(Object key) {
+        return super.containsKey(requireStudent(key));
     }
 
     @Override
-    public void putAll(Map<? extends Student, ? extends Integer> map) {
-        for (Map.Entry<? extends Student, ? extends Integer> entry : map.entrySet()) {
-            put(entry.getKey(), entry.getValue());
+    public boolean containsValue(Object value) {
+        if (value == null || value instanceof Integer){
+            return super.containsValue(value);
         }
+        throw new IllegalArgumentException("Value is not instance of Integer: " + value);
     }
 
     @Override
-    public void clear() {
-        size = 0;
-        buckets = new Node[DEFAULT_INITIAL_CAPACITY];
+    public Integer get(Object key) {
+        return super.get(requireStudent(key));
     }
 
     @Override
-    public Set<Student> keySet() {
-        Set<Student> keySet = new HashSet<>();
-        for (Node bucket : buckets) {
-            while (bucket != null){
-                keySet.add(bucket.getKey());
-                bucket = bucket.next;
-            }
-        }
-        return keySet;
+    public Integer remove(Object key) {
+        return super.remove(requireStudent(key));
     }
 
     @Override
-    public Collection<Integer> values() {
-        Collection<Integer> values = new ArrayList<>();
-        for (Node bucket : buckets) {
-            while (bucket != null){
-                values.add(bucket.getValue());
-                bucket = bucket.next;
-            }
+    public void clear() {
+        super.clear();
+        if (keyPool != null){
+            keyPool.clear();
         }
-        return values;
-    }
-
-    @Override
-    public Set<Map.Entry<Student, Integer>> entrySet() {
-        Set<Map.Entry<Student, Integer>> entrySet = new HashSet<>();
-        for (Node bucket : buckets) {
-            while (bucket != null){
-                entrySet.add(new AbstractMap.SimpleEntry<>(bucket.getKey(), bucket.getValue()));
-                bucket = bucket.next;
-            }
+        if (valueIndex != null){
+            valueIndex.clear();
         }
-        return entrySet;
     }
 }
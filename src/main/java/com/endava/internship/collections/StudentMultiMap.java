@@ -0,0 +1,172 @@
+package com.endava.internship.collections;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * {@link GenericMultiMap} flavour mapping each {@link Student} to primitive {@code int} values, such as grades.
+ * The values of a student are packed into a single {@code int[]} whose first element holds their count,
+ * so no value is boxed and no holder object is kept next to the array.
+ */
+public class StudentMultiMap {
+    private static final int INITIAL_VALUES_CAPACITY = 4;
+
+    /**
+     * Receives the pairs of the map without boxing the values.
+     */
+    public interface EntryConsumer {
+        void accept(Student student, int value);
+    }
+
+    /**
+     * Read-only view of the values of one student, in insertion order, that follows later changes.
+     */
+    public final class Values {
+        private final Student student;
+
+        private Values(Student student) {
+            this.student = student;
+        }
+
+        public int size() {
+            int[] values = map.get(student);
+            return values == null ? 0 : values[0];
+        }
+
+        public int get(int index) {
+            int[] values = map.get(student);
+            if (values == null || index < 0 || index >= values[0]){
+                throw new IndexOutOfBoundsException("Index: " + index + ", size: " + size());
+            }
+            return values[index + 1];
+        }
+
+        public boolean contains(int value) {
+            int[] values = map.get(student);
+            return values != null && indexOf(values, value) >= 0;
+        }
+
+        public int[] toArray() {
+            int[] values = map.get(student);
+            return values == null ? new int[0] : Arrays.copyOfRange(values, 1, values[0] + 1);
+        }
+    }
+
+    private final GenericMap<Student, int[]> map;
+    private int valueCount = 0;
+
+    public StudentMultiMap() {
+        this(GenericMap.DEFAULT_INITIAL_CAPACITY);
+    }
+
+    public StudentMultiMap(int initialCapacity) {
+        map = new GenericMap<>(initialCapacity, Student.HASHING);
+    }
+
+    private static int indexOf(int[] values, int value){
+        for (int i = 1; i <= values[0]; ++i){
+            if (values[i] == value){
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * @return the number of student-value pairs
+     */
+    public int size() {
+        return valueCount;
+    }
+
+    public int keyCount() {
+        return map.size();
+    }
+
+    public boolean isEmpty() {
+        return valueCount == 0;
+    }
+
+    public boolean containsKey(Student student) {
+        return map.containsKey(student);
+    }
+
+    /**
+     * Adds the value to the ones of the student. The map is only written again when the array has to grow.
+     */
+    public void putValue(Student student, int value) {
+        int[] values = map.get(student);
+        if (values == null){
+            values = new int[INITIAL_VALUES_CAPACITY + 1];
+            map.put(student, values);
+        } else if (values[0] == values.length - 1){
+            values = Arrays.copyOf(values, values[0] * 2 + 1);
+            map.put(student, values);
+        }
+        values[++values[0]] = value;
+        ++valueCount;
+    }
+
+    /**
+     * Removes the first value of the student equal to the given one.
+     * @return whether such a value was found
+     */
+    public boolean removeValue(Student student, int value) {
+        int[] values = map.get(student);
+        int index = values == null ? -1 : indexOf(values, value);
+        if (index < 0){
+            return false;
+        }
+        System.arraycopy(values, index + 1, values, index, values[0] - index);
+        --values[0];
+        --valueCount;
+        if (values[0] == 0){
+            map.remove(student);
+        }
+        return true;
+    }
+
+    /**
+     * @return the number of values removed with the student
+     */
+    public int removeKey(Student student) {
+        int[] values = map.remove(student);
+        if (values == null){
+            return 0;
+        }
+        valueCount -= values[0];
+        return values[0];
+    }
+
+    public Values valuesFor(Student student) {
+        return new Values(student);
+    }
+
+    public Set<Student> keySet() {
+        return map.keySet();
+    }
+
+    public void forEach(EntryConsumer action) {
+        Objects.requireNonNull(action);
+        map.forEach((student, values) -> {
+            for (int i = 1; i <= values[0]; ++i){
+                action.accept(student, values[i]);
+            }
+        });
+    }
+
+    public void clear() {
+        map.clear();
+        valueCount = 0;
+    }
+
+    /**
+     * @return the heap held by the map and the value arrays, without the students themselves
+     */
+    public long estimatedMemoryBytes() {
+        long[] bytes = {map.estimatedMemoryBytes()};
+        map.forEach((student, values) -> bytes[0] += ObjectLayout.CURRENT.primitiveArraySize(values.length, Integer.BYTES));
+        return bytes[0];
+    }
+}
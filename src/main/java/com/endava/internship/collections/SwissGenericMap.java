@@ -0,0 +1,287 @@
+package com.endava.internship.collections;
+
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Open-addressing map in the SwissTable layout. Next to the key and value arrays it keeps one control byte
+ * per slot holding 7 bits of the key hash, and probes groups of 8 slots at once by comparing a whole
+ * {@code long} of control bytes with word-level bit tricks. Most mismatching slots are rejected
+ * without loading their keys.
+ */
+public class SwissGenericMap<K, V> implements Map<K, V> {
+    private static final int GROUP_SIZE = 8;
+    private static final int DEFAULT_INITIAL_CAPACITY = 16;
+    private static final float DEFAULT_LOAD_FACTOR = 0.875f;
+
+    private static final byte EMPTY = (byte) 0x80;
+    private static final byte DELETED = (byte) 0xFE;
+    private static final long LOW_BITS = 0x0101010101010101L;
+    private static final long HIGH_BITS = 0x8080808080808080L;
+
+    private long[] control;
+    private Object[] keys;
+    private Object[] values;
+    private int size = 0;
+    private int deleted = 0;
+
+    public SwissGenericMap() {
+        this(DEFAULT_INITIAL_CAPACITY);
+    }
+
+    public SwissGenericMap(int initialCapacity) {
+        if (initialCapacity < 0){
+            throw new IllegalArgumentException("Illegal initial capacity: " + initialCapacity);
+        }
+        allocate(tableSizeFor((int) Math.ceil(Math.max(initialCapacity, DEFAULT_INITIAL_CAPACITY) / DEFAULT_LOAD_FACTOR)));
+    }
+
+    private static int tableSizeFor(int capacity){
+        int groups = Math.max(1, (capacity + GROUP_SIZE - 1) / GROUP_SIZE);
+        int powerOfTwo = Integer.highestOneBit(groups);
+        return (powerOfTwo < groups ? powerOfTwo << 1 : powerOfTwo) * GROUP_SIZE;
+    }
+
+    private void allocate(int slots){
+        control = new long[slots / GROUP_SIZE];
+        Arrays.fill(control, (EMPTY & 0xFFL) * LOW_BITS);
+        keys = new Object[slots];
+        values = new Object[slots];
+        deleted = 0;
+    }
+
+    private static int spread(Object key){
+        int hash = key == null ? 0 : key.hashCode();
+        hash *= 0x9E3779B9;
+        return hash ^ (hash >>> 16);
+    }
+
+    /**
+     * Low 7 bits of the hash, stored in the control byte of a full slot.
+     */
+    private static byte fingerprint(int hash){
+        return (byte) (hash & 0x7F);
+    }
+
+    private static int firstGroup(int hash, int groupCount){
+        return (hash >>> 7) & (groupCount - 1);
+    }
+
+    private byte controlByte(int slot){
+        return (byte) (control[slot / GROUP_SIZE] >>> ((slot % GROUP_SIZE) * 8));
+    }
+
+    private void setControlByte(int slot, byte value){
+        int group = slot / GROUP_SIZE;
+        int shift = (slot % GROUP_SIZE) * 8;
+        control[group] = (control[group] & ~(0xFFL << shift)) | ((value & 0xFFL) << shift);
+    }
+
+    /**
+     * @return a word with the high bit set in every byte of {@code group} equal to {@code value};
+     * a byte right above a real match can be reported too, so callers recheck the byte itself
+     */
+    private static long matchByte(long group, byte value){
+        long comparison = group ^ ((value & 0xFFL) * LOW_BITS);
+        return (comparison - LOW_BITS) & ~comparison & HIGH_BITS;
+    }
+
+    /**
+     * Empty is the only control byte with the high bit set and bit 1 clear.
+     */
+    private static long matchEmpty(long group){
+        return group & (~group << 6) & HIGH_BITS;
+    }
+
+    private static long matchEmptyOrDeleted(long group){
+        return group & HIGH_BITS;
+    }
+
+    private int findSlot(Object key, int hash){
+        byte fingerprint = fingerprint(hash);
+        int groupMask = control.length - 1;
+        int group = firstGroup(hash, control.length);
+        for (int probe = 1; ; ++probe){
+            long word = control[group];
+            long matches = matchByte(word, fingerprint);
+            while (matches != 0){
+                int byteIndex = Long.numberOfTrailingZeros(matches) / 8;
+                int slot = group * GROUP_SIZE + byteIndex;
+                if ((byte) (word >>> (byteIndex * 8)) == fingerprint && Objects.equals(keys[slot], key)){
+                    return slot;
+                }
+                matches &= matches - 1;
+            }
+            if (matchEmpty(word) != 0){
+                return -1;
+            }
+            group = (group + probe) & groupMask;
+        }
+    }
+
+    private int findInsertSlot(int hash){
+        int groupMask = control.length - 1;
+        int group = firstGroup(hash, control.length);
+        for (int probe = 1; ; ++probe){
+            long free = matchEmptyOrDeleted(control[group]);
+            if (free != 0){
+                return group * GROUP_SIZE + Long.numberOfTrailingZeros(free) / 8;
+            }
+            group = (group + probe) & groupMask;
+        }
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return findSlot(key, spread(key)) >= 0;
+    }
+
+    @Override
+    public boolean containsValue(Object value) {
+        for (int slot = 0; slot < keys.length; ++slot){
+            if (controlByte(slot) >= 0 && Objects.equals(values[slot], value)){
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public V get(Object key) {
+        int slot = findSlot(key, spread(key));
+        return slot < 0 ? null : (V) values[slot];
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public V put(K key, V value) {
+        int hash = spread(key);
+        int slot = findSlot(key, hash);
+        if (slot >= 0){
+            V oldValue = (V) values[slot];
+            values[slot] = value;
+            return oldValue;
+        }
+
+        if (size + deleted + 1 > keys.length * DEFAULT_LOAD_FACTOR){
+            rehash(size + 1 > keys.length * DEFAULT_LOAD_FACTOR / 2 ? keys.length * 2 : keys.length);
+        }
+        slot = findInsertSlot(hash);
+        if (controlByte(slot) == DELETED){
+            --deleted;
+        }
+        setControlByte(slot, fingerprint(hash));
+        keys[slot] = key;
+        values[slot] = value;
+        ++size;
+        return null;
+    }
+
+    /**
+     * Reinserts every entry into a table of the given number of slots, dropping deleted markers.
+     */
+    private void rehash(int slots){
+        long[] oldControl = control;
+        Object[] oldKeys = keys;
+        Object[] oldValues = values;
+        allocate(slots);
+
+        for (int slot = 0; slot < oldKeys.length; ++slot){
+            if ((byte) (oldControl[slot / GROUP_SIZE] >>> ((slot % GROUP_SIZE) * 8)) >= 0){
+                int hash = spread(oldKeys[slot]);
+                int newSlot = findInsertSlot(hash);
+                setControlByte(newSlot, fingerprint(hash));
+                keys[newSlot] = oldKeys[slot];
+                values[newSlot] = oldValues[slot];
+            }
+        }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public V remove(Object key) {
+        int slot = findSlot(key, spread(key));
+        if (slot < 0){
+            return null;
+        }
+        V oldValue = (V) values[slot];
+        int group = slot / GROUP_SIZE;
+        //a group that was never full cannot have made a probe continue past it, so the slot can become empty again
+        if (matchEmpty(control[group]) != 0){
+            setControlByte(slot, EMPTY);
+        } else {
+            setControlByte(slot, DELETED);
+            ++deleted;
+        }
+        keys[slot] = null;
+        values[slot] = null;
+        --size;
+        return oldValue;
+    }
+
+    @Override
+    public void putAll(Map<? extends K, ? extends V> map) {
+        for (Map.Entry<? extends K, ? extends V> entry : map.entrySet()) {
+            put(entry.getKey(), entry.getValue());
+        }
+    }
+
+    @Override
+    public void clear() {
+        size = 0;
+        allocate(tableSizeFor((int) Math.ceil(DEFAULT_INITIAL_CAPACITY / DEFAULT_LOAD_FACTOR)));
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Set<K> keySet() {
+        Set<K> keySet = new HashSet<>();
+        for (int slot = 0; slot < keys.length; ++slot){
+            if (controlByte(slot) >= 0){
+                keySet.add((K) keys[slot]);
+            }
+        }
+        return keySet;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Collection<V> values() {
+        Collection<V> valueList = new ArrayList<>();
+        for (int slot = 0; slot < keys.length; ++slot){
+            if (controlByte(slot) >= 0){
+                valueList.add((V) values[slot]);
+            }
+        }
+        return valueList;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Set<Map.Entry<K, V>> entrySet() {
+        Set<Map.Entry<K, V>> entrySet = new HashSet<>();
+        for (int slot = 0; slot < keys.length; ++slot){
+            if (controlByte(slot) >= 0){
+                entrySet.add(new AbstractMap.SimpleEntry<>((K) keys[slot], (V) values[slot]));
+            }
+        }
+        return entrySet;
+    }
+}
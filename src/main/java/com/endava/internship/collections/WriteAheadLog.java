@@ -0,0 +1,285 @@
+package com.endava.internship.collections;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only log of map mutations, split into numbered segments.
+ * A record is {@code length | type | key | value | crc32}; replay stops at the first torn or corrupt record.
+ * Every record is handed to the operating system before {@link #append} returns, so it survives a crash
+ * of the process; the fsync policy only decides when it is forced to the disk.
+ */
+final class WriteAheadLog implements Closeable {
+    static final byte PUT = 1;
+    static final byte REMOVE = 2;
+    static final byte CLEAR = 3;
+
+    private static final String SEGMENT_PREFIX = "wal-";
+    private static final String SEGMENT_SUFFIX = ".log";
+    private static final int STAGING_CAPACITY = 4 * 1024;
+
+    interface RecordHandler {
+        void onRecord(byte type, byte[] key, byte[] value);
+    }
+
+    private final Path directory;
+    private final FsyncPolicy fsyncPolicy;
+    private final int groupCommitSize;
+    private final long groupCommitNanos;
+    private final CRC32 crc = new CRC32();
+    private ByteBuffer staging = ByteBuffer.allocate(STAGING_CAPACITY);
+    private FileChannel channel;
+    private long segment;
+    private long segmentBytes;
+    private final ScheduledExecutorService groupCommitTimer;
+    private int unforcedRecords;
+    private long oldestUnforcedNanos;
+    private IOException groupCommitFailure;
+
+    WriteAheadLog(Path directory, long segment, FsyncPolicy fsyncPolicy, int groupCommitSize, long groupCommitMillis)
+            throws IOException {
+        this.directory = directory;
+        this.fsyncPolicy = fsyncPolicy;
+        this.groupCommitSize = groupCommitSize;
+        this.groupCommitNanos = groupCommitMillis * 1_000_000L;
+        openSegment(segment);
+
+        if (fsyncPolicy == FsyncPolicy.GROUP_COMMIT){
+            groupCommitTimer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "write-ahead-log-group-commit");
+                thread.setDaemon(true);
+                return thread;
+            });
+            groupCommitTimer.scheduleWithFixedDelay(this::forceDueGroup, groupCommitMillis, groupCommitMillis,
+                    TimeUnit.MILLISECONDS);
+        } else {
+            groupCommitTimer = null;
+        }
+    }
+
+    long segment() {
+        return segment;
+    }
+
+    long segmentBytes() {
+        return segmentBytes;
+    }
+
+    synchronized void append(byte type, byte[] key, byte[] value) throws IOException {
+        throwGroupCommitFailure();
+        int bodyLength = 1 + lengthOf(key) + lengthOf(value);
+        int recordLength = 4 + bodyLength + 4;
+        if (staging.capacity() < recordLength){
+            staging = ByteBuffer.allocate(recordLength);
+        }
+
+        staging.putInt(bodyLength);
+        int bodyStart = staging.position();
+        staging.put(type);
+        putBytes(key);
+        putBytes(value);
+        crc.reset();
+        crc.update(staging.array(), bodyStart, bodyLength);
+        staging.putInt((int) crc.getValue());
+        writeStaging();
+        segmentBytes += recordLength;
+
+        if (unforcedRecords++ == 0){
+            oldestUnforcedNanos = System.nanoTime();
+        }
+        switch (fsyncPolicy){
+            case EVERY_WRITE:
+                sync();
+                break;
+            case GROUP_COMMIT:
+                if (unforcedRecords >= groupCommitSize || System.nanoTime() - oldestUnforcedNanos >= groupCommitNanos){
+                    sync();
+                }
+                break;
+            default:
+                break;
+        }
+    }
+
+    /**
+     * Forces every written record of the current segment to the disk.
+     */
+    synchronized void sync() throws IOException {
+        throwGroupCommitFailure();
+        if (unforcedRecords > 0){
+            channel.force(false);
+            unforcedRecords = 0;
+        }
+    }
+
+    /**
+     * Run by the group commit timer, so a group is forced on time even when no further record follows it.
+     * A failure is reported by the next call on the log.
+     */
+    private synchronized void forceDueGroup() {
+        if (unforcedRecords == 0 || groupCommitFailure != null || !channel.isOpen()
+                || System.nanoTime() - oldestUnforcedNanos < groupCommitNanos){
+            return;
+        }
+        try {
+            channel.force(false);
+            unforcedRecords = 0;
+        } catch (IOException e) {
+            groupCommitFailure = e;
+        }
+    }
+
+    private void throwGroupCommitFailure() throws IOException {
+        if (groupCommitFailure != null){
+            throw new IOException("Group commit failed", groupCommitFailure);
+        }
+    }
+
+    /**
+     * Seals the current segment and starts the next one.
+     * @return the number of the sealed segment
+     */
+    synchronized long roll() throws IOException {
+        sync();
+        channel.close();
+        long sealed = segment;
+        openSegment(segment + 1);
+        return sealed;
+    }
+
+    void deleteSegmentsUpTo(long lastSegment) throws IOException {
+        for (long sealed : segments(directory)) {
+            if (sealed <= lastSegment){
+                Files.deleteIfExists(segmentPath(directory, sealed));
+            }
+        }
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (groupCommitTimer != null){
+            groupCommitTimer.shutdown();
+        }
+        if (channel.isOpen()){
+            sync();
+            channel.close();
+        }
+    }
+
+    /**
+     * Forces the directory entries, so files created, renamed or deleted in it survive a power failure.
+     * Directories cannot be opened as channels on Windows, where the rename itself is durable.
+     */
+    static void syncDirectory(Path directory) throws IOException {
+        if (System.getProperty("os.name", "").startsWith("Windows")){
+            return;
+        }
+        try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+            channel.force(true);
+        }
+    }
+
+    static List<Long> segments(Path directory) throws IOException {
+        List<Long> segments = new ArrayList<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, SEGMENT_PREFIX + "*" + SEGMENT_SUFFIX)) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                segments.add(Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length())));
+            }
+        }
+        Collections.sort(segments);
+        return segments;
+    }
+
+    static void replay(Path directory, long segment, RecordHandler handler) throws IOException {
+        CRC32 checksum = new CRC32();
+        long remaining = Files.size(segmentPath(directory, segment));
+        try (InputStream file = Files.newInputStream(segmentPath(directory, segment));
+             DataInputStream in = new DataInputStream(new BufferedInputStream(file))) {
+            while (true){
+                byte[] body;
+                int storedCrc;
+                try {
+                    int bodyLength = in.readInt();
+                    remaining -= 4L + bodyLength + 4L;
+                    if (bodyLength <= 0 || remaining < 0){
+                        return;
+                    }
+                    body = new byte[bodyLength];
+                    in.readFully(body);
+                    storedCrc = in.readInt();
+                } catch (EOFException tornTail) {
+                    return;
+                }
+                checksum.reset();
+                checksum.update(body, 0, body.length);
+                if ((int) checksum.getValue() != storedCrc){
+                    return;
+                }
+                ByteBuffer record = ByteBuffer.wrap(body);
+                byte type = record.get();
+                handler.onRecord(type, readBytes(record), readBytes(record));
+            }
+        }
+    }
+
+    static Path segmentPath(Path directory, long segment) {
+        return directory.resolve(String.format("%s%020d%s", SEGMENT_PREFIX, segment, SEGMENT_SUFFIX));
+    }
+
+    private void openSegment(long segment) throws IOException {
+        this.segment = segment;
+        this.segmentBytes = 0;
+        this.channel = FileChannel.open(segmentPath(directory, segment),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        syncDirectory(directory);
+    }
+
+    private void writeStaging() throws IOException {
+        staging.flip();
+        while (staging.hasRemaining()){
+            channel.write(staging);
+        }
+        staging.clear();
+    }
+
+    private void putBytes(byte[] bytes) {
+        if (bytes == null){
+            staging.putInt(-1);
+        } else {
+            staging.putInt(bytes.length);
+            staging.put(bytes);
+        }
+    }
+
+    private static int lengthOf(byte[] bytes) {
+        return 4 + (bytes == null ? 0 : bytes.length);
+    }
+
+    private static byte[] readBytes(ByteBuffer record) {
+        int length = record.getInt();
+        if (length < 0){
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        record.get(bytes);
+        return bytes;
+    }
+}
@@ -0,0 +1,12 @@
+package com.endava.internship.collections.workload;
+
+/**
+ * Picks the id of an existing record for the next operation. Instances are used by one thread only.
+ */
+interface KeyChooser {
+
+    /**
+     * @param recordCount number of ids handed out so far; the result lies in {@code [0, recordCount)}
+     */
+    long nextKey(long recordCount);
+}
@@ -0,0 +1,71 @@
+package com.endava.internship.collections.workload;
+
+import java.util.Random;
+
+/**
+ * How the records read and written by a workload are chosen.
+ */
+public enum KeyDistribution {
+    /**
+     * Every record is equally likely.
+     */
+    UNIFORM {
+        @Override
+        KeyChooser newChooser(Random random) {
+            return recordCount -> (long) (random.nextDouble() * recordCount);
+        }
+    },
+    /**
+     * A few records are far more popular than the rest, and the popular ones are spread over the key space.
+     * As in YCSB's scrambled Zipfian, ranks are drawn over a fixed item space, so inserts do not move
+     * the popular records.
+     */
+    ZIPFIAN {
+        @Override
+        KeyChooser newChooser(Random random) {
+            ZipfianGenerator generator = new ZipfianGenerator(random, SCRAMBLED_ITEM_COUNT, SCRAMBLED_ZETA_N);
+            return recordCount -> fold(scramble(generator.next(SCRAMBLED_ITEM_COUNT)), recordCount);
+        }
+    },
+    /**
+     * The most recently inserted records are the most popular.
+     */
+    LATEST {
+        @Override
+        KeyChooser newChooser(Random random) {
+            ZipfianGenerator generator = new ZipfianGenerator(random);
+            return recordCount -> recordCount - 1 - generator.next(recordCount);
+        }
+    };
+
+    private static final long SCRAMBLED_ITEM_COUNT = 10_000_000_000L;
+    /**
+     * Normalizing sum of the Zipfian over {@link #SCRAMBLED_ITEM_COUNT} items, as precomputed by YCSB.
+     */
+    private static final double SCRAMBLED_ZETA_N = 26.46902820178302;
+
+    abstract KeyChooser newChooser(Random random);
+
+    /**
+     * Maps a position onto the existing records the way linear hashing maps keys onto buckets:
+     * within the next power of two, and one level lower when that slot is not a record yet.
+     * A position's record changes only when the record count grows past the slot it is waiting for.
+     */
+    private static long fold(long position, long recordCount){
+        long tableSize = recordCount == 1 ? 1 : Long.highestOneBit(recordCount - 1) << 1;
+        long slot = position & (tableSize - 1);
+        return slot < recordCount ? slot : slot - (tableSize >>> 1);
+    }
+
+    /**
+     * FNV-1a over the bytes of the rank, kept non-negative.
+     */
+    private static long scramble(long rank){
+        long hash = 0xCBF29CE484222325L;
+        for (int i = 0; i < 8; ++i){
+            hash ^= (rank >>> (i * 8)) & 0xFF;
+            hash *= 0x100000001B3L;
+        }
+        return hash & Long.MAX_VALUE;
+    }
+}
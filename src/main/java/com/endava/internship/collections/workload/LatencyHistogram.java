@@ -0,0 +1,85 @@
+package com.endava.internship.collections.workload;
+
+/**
+ * Histogram of latencies in nanoseconds with log-linear buckets: exact below 32 ns, and 16 buckets
+ * per power of two above, so every recorded value is reported within about 6%.
+ * Recording is allocation free. Instances are not thread-safe; each thread records into its own
+ * and the results are {@link #add(LatencyHistogram) merged}.
+ */
+public final class LatencyHistogram {
+    private static final int SUB_BUCKET_BITS = 4;
+    private static final int LINEAR_LIMIT = 2 << SUB_BUCKET_BITS;
+
+    private final long[] counts = new long[64 << SUB_BUCKET_BITS];
+    private long totalCount = 0;
+    private long sum = 0;
+    private long min = Long.MAX_VALUE;
+    private long max = 0;
+
+    static int bucketIndex(long value){
+        if (value < LINEAR_LIMIT){
+            return (int) value;
+        }
+        int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+        return (shift << SUB_BUCKET_BITS) + (int) (value >>> shift);
+    }
+
+    static long bucketLowerBound(int index){
+        if (index < LINEAR_LIMIT){
+            return index;
+        }
+        int shift = (index >>> SUB_BUCKET_BITS) - 1;
+        return (long) (index - (shift << SUB_BUCKET_BITS)) << shift;
+    }
+
+    public void record(long nanos){
+        long value = Math.max(0, nanos);
+        ++counts[bucketIndex(value)];
+        ++totalCount;
+        sum += value;
+        min = Math.min(min, value);
+        max = Math.max(max, value);
+    }
+
+    public void add(LatencyHistogram other){
+        for (int i = 0; i < counts.length; ++i){
+            counts[i] += other.counts[i];
+        }
+        totalCount += other.totalCount;
+        sum += other.sum;
+        min = Math.min(min, other.min);
+        max = Math.max(max, other.max);
+    }
+
+    public long getCount() { return totalCount; }
+
+    public long getMax() { return max; }
+
+    public long getMin() { return totalCount == 0 ? 0 : min; }
+
+    public double getMean() {
+        return totalCount == 0 ? 0 : (double) sum / totalCount;
+    }
+
+    /**
+     * @param percentile between 0 and 100
+     * @return the highest value in the bucket holding the given percentile, capped by the largest recorded value
+     */
+    public long getValueAtPercentile(double percentile){
+        if (!(percentile >= 0 && percentile <= 100)){
+            throw new IllegalArgumentException("Illegal percentile: " + percentile);
+        }
+        if (totalCount == 0){
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100 * totalCount));
+        long seen = 0;
+        for (int i = 0; i < counts.length; ++i){
+            seen += counts[i];
+            if (seen >= rank){
+                return Math.min(max, Math.max(min, bucketLowerBound(i + 1) - 1));
+            }
+        }
+        return max;
+    }
+}
@@ -0,0 +1,61 @@
+package com.endava.internship.collections.workload;
+
+import java.util.Map;
+import java.util.function.LongFunction;
+
+/**
+ * A map under test, addressed by record id. Keys for the ids known up front are built before the run,
+ * so their construction is not timed.
+ */
+final class MapTarget<K> {
+    private final Map<K, Integer> map;
+    private final LongFunction<K> keyFactory;
+    private final Object[] keys;
+
+    MapTarget(Map<K, Integer> map, LongFunction<K> keyFactory, int prebuiltKeys) {
+        this.map = map;
+        this.keyFactory = keyFactory;
+        this.keys = new Object[prebuiltKeys];
+        for (int id = 0; id < prebuiltKeys; ++id){
+            keys[id] = keyFactory.apply(id);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private K key(long id){
+        return id >= 0 && id < keys.length ? (K) keys[(int) id] : keyFactory.apply(id);
+    }
+
+    /**
+     * @return whether the records touched by the operation were found
+     */
+    boolean execute(Operation operation, long id, int argument){
+        switch (operation) {
+            case READ:
+                return map.get(key(id)) != null;
+            case UPDATE:
+            case INSERT:
+                return map.put(key(id), argument) != null;
+            case SCAN:
+                int found = 0;
+                for (long current = id; current < id + argument; ++current){
+                    if (map.get(key(current)) != null){
+                        ++found;
+                    }
+                }
+                return found > 0;
+            case READ_MODIFY_WRITE:
+                Integer value = map.get(key(id));
+                map.put(key(id), value == null ? argument : value + argument);
+                return value != null;
+            case DELETE:
+                return map.remove(key(id)) != null;
+            default:
+                throw new IllegalArgumentException("Unknown operation: " + operation);
+        }
+    }
+
+    int size(){
+        return map.size();
+    }
+}
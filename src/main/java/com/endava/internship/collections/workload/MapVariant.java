@@ -0,0 +1,169 @@
+package com.endava.internship.collections.workload;
+
+import com.endava.internship.collections.AsyncGenericMap;
+import com.endava.internship.collections.GenericMap;
+import com.endava.internship.collections.IntObjectMap;
+import com.endava.internship.collections.LongIntMap;
+import com.endava.internship.collections.LongObjectMap;
+import com.endava.internship.collections.ReferenceGenericMap;
+import com.endava.internship.collections.ShardedGenericMap;
+import com.endava.internship.collections.SingleWriterGenericMap;
+import com.endava.internship.collections.Student;
+import com.endava.internship.collections.StudentMap;
+import com.endava.internship.collections.SwissGenericMap;
+
+import java.time.LocalDate;
+import java.util.AbstractMap;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.LongFunction;
+
+/**
+ * Map implementations the driver can run a workload against. Maps that are not thread-safe
+ * are wrapped in {@link Collections#synchronizedMap(Map)} for multi-threaded runs.
+ * The primitive maps are driven through their boxed {@code asMap()} views.
+ * {@link com.endava.internship.collections.DurableGenericMap} is left out, as it needs a directory
+ * and has to be closed, which the driver does not manage.
+ */
+public enum MapVariant {
+    GENERIC_MAP {
+        @Override
+        MapTarget<?> create(int prebuiltKeys, boolean shared) {
+            return target(new GenericMap<>(), MapVariant::userKey, prebuiltKeys, shared);
+        }
+    },
+    STUDENT_MAP {
+        @Override
+        MapTarget<?> create(int prebuiltKeys, boolean shared) {
+            return target(new StudentMap(), MapVariant::studentKey, prebuiltKeys, shared);
+        }
+    },
+    HASH_MAP {
+        @Override
+        MapTarget<?> create(int prebuiltKeys, boolean shared) {
+            return target(new HashMap<>(), MapVariant::userKey, prebuiltKeys, shared);
+        }
+    },
+    SWISS_MAP {
+        @Override
+        MapTarget<?> create(int prebuiltKeys, boolean shared) {
+            return target(new SwissGenericMap<>(), MapVariant::userKey, prebuiltKeys, shared);
+        }
+    },
+    /**
+     * Lock-free for readers only, so multi-threaded runs still serialize every call.
+     */
+    SINGLE_WRITER_MAP {
+        @Override
+        MapTarget<?> create(int prebuiltKeys, boolean shared) {
+            return target(new SingleWriterGenericMap<>(), MapVariant::userKey, prebuiltKeys, shared);
+        }
+    },
+    /**
+     * Local shards lock on their own, so it is never wrapped.
+     */
+    SHARDED_MAP {
+        @Override
+        MapTarget<?> create(int prebuiltKeys, boolean shared) {
+            return new MapTarget<>(new ShardedGenericMap<>(SHARD_COUNT), MapVariant::userKey, prebuiltKeys);
+        }
+    },
+    /**
+     * Weak keys stay reachable through the keys the target builds up front.
+     */
+    REFERENCE_MAP {
+        @Override
+        MapTarget<?> create(int prebuiltKeys, boolean shared) {
+            return target(new ReferenceGenericMap<>(ReferenceGenericMap.ReferenceStrength.WEAK),
+                    MapVariant::userKey, prebuiltKeys, shared);
+        }
+    },
+    /**
+     * Every call waits for its request, as a synchronous caller of the facade would.
+     */
+    ASYNC_MAP {
+        @Override
+        MapTarget<?> create(int prebuiltKeys, boolean shared) {
+            return new MapTarget<>(new AsyncMapView<>(new GenericMap<>()), MapVariant::userKey, prebuiltKeys);
+        }
+    },
+    LONG_OBJECT_MAP {
+        @Override
+        MapTarget<?> create(int prebuiltKeys, boolean shared) {
+            return target(new LongObjectMap<Integer>().asMap(), Long::valueOf, prebuiltKeys, shared);
+        }
+    },
+    INT_OBJECT_MAP {
+        @Override
+        MapTarget<?> create(int prebuiltKeys, boolean shared) {
+            return target(new IntObjectMap<Integer>().asMap(), id -> (int) id, prebuiltKeys, shared);
+        }
+    },
+    LONG_INT_MAP {
+        @Override
+        MapTarget<?> create(int prebuiltKeys, boolean shared) {
+            return target(new LongIntMap().asMap(), Long::valueOf, prebuiltKeys, shared);
+        }
+    };
+
+    private static final int SHARD_COUNT = 8;
+
+    private static final LocalDate FIRST_BIRTH_DATE = LocalDate.of(1990, 1, 1);
+
+    abstract MapTarget<?> create(int prebuiltKeys, boolean shared);
+
+    private static <K> MapTarget<K> target(Map<K, Integer> map, LongFunction<K> keyFactory, int prebuiltKeys, boolean shared){
+        return new MapTarget<>(shared ? Collections.synchronizedMap(map) : map, keyFactory, prebuiltKeys);
+    }
+
+    /**
+     * Blocking map view of an {@link AsyncGenericMap}. Its size and entries are read from the underlying map,
+     * so they are only accurate once no requests are pending.
+     */
+    private static final class AsyncMapView<K> extends AbstractMap<K, Integer> {
+        private final GenericMap<K, Integer> map;
+        private final AsyncGenericMap<K, Integer> asyncMap;
+
+        private AsyncMapView(GenericMap<K, Integer> map) {
+            this.map = map;
+            this.asyncMap = new AsyncGenericMap<>(map);
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public Integer get(Object key) {
+            return asyncMap.getAsync((K) key).join();
+        }
+
+        @Override
+        public Integer put(K key, Integer value) {
+            return asyncMap.putAsync(key, value).join();
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public Integer remove(Object key) {
+            return asyncMap.removeAsync((K) key).join();
+        }
+
+        @Override
+        public int size() {
+            return map.size();
+        }
+
+        @Override
+        public Set<Map.Entry<K, Integer>> entrySet() {
+            return Collections.unmodifiableSet(map.entrySet());
+        }
+    }
+
+    private static String userKey(long id){
+        return "user" + id;
+    }
+
+    private static Student studentKey(long id){
+        return new Student("user" + id, FIRST_BIRTH_DATE.plusDays(id % 10_000), "");
+    }
+}
@@ -0,0 +1,16 @@
+package com.endava.internship.collections.workload;
+
+/**
+ * Kinds of requests a workload sends to a map, after the YCSB core workloads.
+ */
+public enum Operation {
+    READ,
+    UPDATE,
+    INSERT,
+    /**
+     * Reads a run of consecutive key ids; hash maps keep no key order, so each key is looked up on its own.
+     */
+    SCAN,
+    READ_MODIFY_WRITE,
+    DELETE
+}
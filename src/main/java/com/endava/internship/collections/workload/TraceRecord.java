@@ -0,0 +1,64 @@
+package com.endava.internship.collections.workload;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * One recorded operation of a trace. Trace files hold one record per line as
+ * {@code OPERATION id [argument]}, where the argument is the value written or the scan length;
+ * blank lines and lines starting with {@code #} are skipped.
+ */
+public final class TraceRecord {
+    private final Operation operation;
+    private final long id;
+    private final int argument;
+
+    public TraceRecord(Operation operation, long id, int argument) {
+        if (operation == null){
+            throw new IllegalArgumentException("Operation must not be null");
+        }
+        this.operation = operation;
+        this.id = id;
+        this.argument = argument;
+    }
+
+    public static List<TraceRecord> read(Path file) throws IOException {
+        List<TraceRecord> records = new ArrayList<>();
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            int lineNumber = 0;
+            for (String line = reader.readLine(); line != null; line = reader.readLine()){
+                ++lineNumber;
+                String trimmed = line.trim();
+                if (!trimmed.isEmpty() && !trimmed.startsWith("#")){
+                    records.add(parse(trimmed, lineNumber));
+                }
+            }
+        }
+        return records;
+    }
+
+    private static TraceRecord parse(String line, int lineNumber){
+        String[] fields = line.split("\\s+");
+        try {
+            if (fields.length < 2 || fields.length > 3){
+                throw new IllegalArgumentException("expected OPERATION id [argument]");
+            }
+            Operation operation = Operation.valueOf(fields[0].toUpperCase());
+            int argument = fields.length == 3 ? Integer.parseInt(fields[2]) : 1;
+            return new TraceRecord(operation, Long.parseLong(fields[1]), argument);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Malformed trace line " + lineNumber + ": " + line, e);
+        }
+    }
+
+    public Operation getOperation() { return operation; }
+
+    public long getId() { return id; }
+
+    public int getArgument() { return argument; }
+}
@@ -0,0 +1,167 @@
+package com.endava.internship.collections.workload;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Runs a workload against one map variant: a load phase inserting the initial records untimed,
+ * then a run phase in which every thread times each operation it sends into its own histograms.
+ */
+public class WorkloadDriver {
+    private static final int MAX_PREBUILT_KEYS = 1 << 24;
+
+    private final MapVariant variant;
+    private final int threads;
+    private final long seed;
+
+    private interface ThreadBody {
+        void run(int thread, Map<Operation, LatencyHistogram> histograms);
+    }
+
+    public WorkloadDriver(MapVariant variant, int threads, long seed) {
+        if (variant == null){
+            throw new IllegalArgumentException("Variant must not be null");
+        }
+        if (threads <= 0){
+            throw new IllegalArgumentException("Illegal thread count: " + threads);
+        }
+        this.variant = variant;
+        this.threads = threads;
+        this.seed = seed;
+    }
+
+    private MapTarget<?> load(int recordCount, long expectedInserts){
+        if (recordCount < 0){
+            throw new IllegalArgumentException("Illegal record count: " + recordCount);
+        }
+        MapTarget<?> target = variant.create((int) Math.min(MAX_PREBUILT_KEYS, recordCount + expectedInserts), threads > 1);
+        for (int id = 0; id < recordCount; ++id){
+            target.execute(Operation.INSERT, id, id);
+        }
+        return target;
+    }
+
+    /**
+     * Loads {@code recordCount} records, then sends {@code operationCount} operations drawn from the mix,
+     * split evenly between the threads.
+     */
+    public WorkloadReport run(WorkloadMix mix, int recordCount, long operationCount){
+        if (mix == null){
+            throw new IllegalArgumentException("Mix must not be null");
+        }
+        if (operationCount < 0){
+            throw new IllegalArgumentException("Illegal operation count: " + operationCount);
+        }
+        MapTarget<?> target = load(recordCount, operationCount);
+        AtomicLong nextId = new AtomicLong(recordCount);
+
+        return execute(mix.getName(), (thread, histograms) -> {
+            Random random = new Random(seed + thread);
+            KeyChooser chooser = mix.getDistribution().newChooser(random);
+            long operations = operationCount / threads + (thread < operationCount % threads ? 1 : 0);
+            for (long i = 0; i < operations; ++i){
+                Operation operation = mix.choose(random.nextDouble());
+                long id;
+                int argument;
+                if (operation == Operation.INSERT){
+                    id = nextId.getAndIncrement();
+                    argument = random.nextInt();
+                } else {
+                    id = chooser.nextKey(Math.max(1, nextId.get()));
+                    argument = operation == Operation.SCAN ? 1 + random.nextInt(mix.getMaxScanLength()) : random.nextInt();
+                }
+                timed(target, operation, id, argument, histograms);
+            }
+        });
+    }
+
+    /**
+     * Loads {@code recordCount} records, then replays the trace, handing its records to the threads in turn.
+     */
+    public WorkloadReport replay(List<TraceRecord> trace, int recordCount, String name){
+        if (trace == null){
+            throw new IllegalArgumentException("Trace must not be null");
+        }
+        long highestId = recordCount;
+        for (TraceRecord record : trace) {
+            highestId = Math.max(highestId, record.getId() + 1);
+        }
+        MapTarget<?> target = load(recordCount, highestId - recordCount);
+
+        return execute(name, (thread, histograms) -> {
+            for (int i = thread; i < trace.size(); i += threads){
+                TraceRecord record = trace.get(i);
+                timed(target, record.getOperation(), record.getId(), record.getArgument(), histograms);
+            }
+        });
+    }
+
+    private static void timed(MapTarget<?> target, Operation operation, long id, int argument,
+                              Map<Operation, LatencyHistogram> histograms){
+        long start = System.nanoTime();
+        target.execute(operation, id, argument);
+        long latency = System.nanoTime() - start;
+        LatencyHistogram histogram = histograms.get(operation);
+        if (histogram == null){
+            histogram = new LatencyHistogram();
+            histograms.put(operation, histogram);
+        }
+        histogram.record(latency);
+    }
+
+    private WorkloadReport execute(String name, ThreadBody body){
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicReference<RuntimeException> failure = new AtomicReference<>();
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        Map<Operation, LatencyHistogram>[] threadHistograms = new Map[threads];
+        Thread[] workers = new Thread[threads];
+        for (int thread = 0; thread < threads; ++thread){
+            int index = thread;
+            threadHistograms[thread] = new EnumMap<>(Operation.class);
+            workers[thread] = new Thread(() -> {
+                try {
+                    start.await();
+                    body.run(index, threadHistograms[index]);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } catch (RuntimeException e) {
+                    failure.compareAndSet(null, e);
+                }
+            }, "workload-" + thread);
+            workers[thread].start();
+        }
+
+        long startNanos = System.nanoTime();
+        start.countDown();
+        for (Thread worker : workers) {
+            try {
+                worker.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while waiting for the workload", e);
+            }
+        }
+        long durationNanos = System.nanoTime() - startNanos;
+        if (failure.get() != null){
+            throw failure.get();
+        }
+
+        Map<Operation, LatencyHistogram> merged = new EnumMap<>(Operation.class);
+        for (Map<Operation, LatencyHistogram> histograms : threadHistograms) {
+            for (Map.Entry<Operation, LatencyHistogram> entry : histograms.entrySet()) {
+                LatencyHistogram histogram = merged.get(entry.getKey());
+                if (histogram == null){
+                    histogram = new LatencyHistogram();
+                    merged.put(entry.getKey(), histogram);
+                }
+                histogram.add(entry.getValue());
+            }
+        }
+        return new WorkloadReport(variant, name, threads, durationNanos, merged);
+    }
+}
@@ -0,0 +1,81 @@
+package com.endava.internship.collections.workload;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Command line entry point running one workload against several map variants and printing a report per variant.
+ * <pre>
+ * java -cp target/classes com.endava.internship.collections.workload.WorkloadMain \
+ *     --workload=A --variants=GENERIC_MAP,STUDENT_MAP,HASH_MAP --records=100000 --operations=1000000 \
+ *     --threads=1 --distribution=ZIPFIAN --seed=1 --format=csv [--trace=ops.txt] [--output=report.csv]
+ * </pre>
+ */
+public final class WorkloadMain {
+
+    private WorkloadMain() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        Map<String, String> options = parseOptions(args);
+        List<MapVariant> variants = new ArrayList<>();
+        for (String variant : options.getOrDefault("variants", "GENERIC_MAP,STUDENT_MAP,HASH_MAP").split(",")) {
+            variants.add(MapVariant.valueOf(variant.trim().toUpperCase()));
+        }
+        int records = Integer.parseInt(options.getOrDefault("records", "100000"));
+        long operations = Long.parseLong(options.getOrDefault("operations", "1000000"));
+        int threads = Integer.parseInt(options.getOrDefault("threads", "1"));
+        long seed = Long.parseLong(options.getOrDefault("seed", "1"));
+        boolean json = "json".equalsIgnoreCase(options.getOrDefault("format", "csv"));
+
+        WorkloadMix mix = WorkloadMix.ycsb(options.getOrDefault("workload", "A"));
+        if (options.containsKey("distribution")){
+            mix = mix.withDistribution(KeyDistribution.valueOf(options.get("distribution").toUpperCase()));
+        }
+        List<TraceRecord> trace = options.containsKey("trace")
+                ? TraceRecord.read(Paths.get(options.get("trace")))
+                : null;
+
+        StringBuilder report = new StringBuilder(json ? "[" : WorkloadReport.CSV_HEADER + '\n');
+        for (int i = 0; i < variants.size(); ++i){
+            WorkloadDriver driver = new WorkloadDriver(variants.get(i), threads, seed);
+            WorkloadReport result = trace == null
+                    ? driver.run(mix, records, operations)
+                    : driver.replay(trace, records, "trace:" + options.get("trace"));
+            if (json){
+                report.append(i == 0 ? "" : ",").append(result.toJson());
+            } else {
+                report.append(result.toCsvRows());
+            }
+        }
+        if (json){
+            report.append("]\n");
+        }
+
+        if (options.containsKey("output")){
+            Path output = Paths.get(options.get("output"));
+            Files.write(output, report.toString().getBytes(StandardCharsets.UTF_8));
+        } else {
+            System.out.print(report);
+        }
+    }
+
+    private static Map<String, String> parseOptions(String[] args){
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            int separator = arg.indexOf('=');
+            if (!arg.startsWith("--") || separator < 0){
+                throw new IllegalArgumentException("Expected --name=value but got: " + arg);
+            }
+            options.put(arg.substring(2, separator), arg.substring(separator + 1));
+        }
+        return options;
+    }
+}
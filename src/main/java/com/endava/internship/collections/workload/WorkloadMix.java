@@ -0,0 +1,142 @@
+package com.endava.internship.collections.workload;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Share of each operation in a workload, with the distribution of the keys it touches.
+ * The YCSB core workloads A to F are available as factories.
+ */
+public final class WorkloadMix {
+    private static final int DEFAULT_SCAN_LENGTH = 100;
+
+    private final String name;
+    private final Map<Operation, Double> proportions;
+    private final Operation[] operations;
+    private final double[] cumulative;
+    private final KeyDistribution distribution;
+    private final int maxScanLength;
+
+    public WorkloadMix(String name, Map<Operation, Double> proportions, KeyDistribution distribution, int maxScanLength) {
+        if (name == null || proportions == null || distribution == null){
+            throw new IllegalArgumentException("Name, proportions and distribution must not be null");
+        }
+        if (maxScanLength <= 0){
+            throw new IllegalArgumentException("Illegal scan length: " + maxScanLength);
+        }
+        double total = 0;
+        for (Double proportion : proportions.values()) {
+            if (proportion == null || proportion < 0){
+                throw new IllegalArgumentException("Illegal proportion: " + proportion);
+            }
+            total += proportion;
+        }
+        if (total <= 0){
+            throw new IllegalArgumentException("Proportions must not all be zero");
+        }
+        this.name = name;
+        this.proportions = new EnumMap<>(proportions);
+        this.distribution = distribution;
+        this.maxScanLength = maxScanLength;
+
+        operations = this.proportions.keySet().toArray(new Operation[0]);
+        cumulative = new double[operations.length];
+        double sum = 0;
+        for (int i = 0; i < operations.length; ++i){
+            sum += this.proportions.get(operations[i]) / total;
+            cumulative[i] = sum;
+        }
+    }
+
+    private static WorkloadMix of(String name, KeyDistribution distribution, Operation first, double firstShare,
+                                  Operation second, double secondShare){
+        Map<Operation, Double> proportions = new EnumMap<>(Operation.class);
+        proportions.put(first, firstShare);
+        if (second != null){
+            proportions.put(second, secondShare);
+        }
+        return new WorkloadMix(name, proportions, distribution, DEFAULT_SCAN_LENGTH);
+    }
+
+    /**
+     * Update heavy: half reads, half updates.
+     */
+    public static WorkloadMix ycsbA(){
+        return of("A", KeyDistribution.ZIPFIAN, Operation.READ, 0.5, Operation.UPDATE, 0.5);
+    }
+
+    /**
+     * Read mostly: 95% reads, 5% updates.
+     */
+    public static WorkloadMix ycsbB(){
+        return of("B", KeyDistribution.ZIPFIAN, Operation.READ, 0.95, Operation.UPDATE, 0.05);
+    }
+
+    /**
+     * Read only.
+     */
+    public static WorkloadMix ycsbC(){
+        return of("C", KeyDistribution.ZIPFIAN, Operation.READ, 1, null, 0);
+    }
+
+    /**
+     * Read latest: 95% reads favouring new records, 5% inserts.
+     */
+    public static WorkloadMix ycsbD(){
+        return of("D", KeyDistribution.LATEST, Operation.READ, 0.95, Operation.INSERT, 0.05);
+    }
+
+    /**
+     * Short ranges: 95% scans, 5% inserts.
+     */
+    public static WorkloadMix ycsbE(){
+        return of("E", KeyDistribution.ZIPFIAN, Operation.SCAN, 0.95, Operation.INSERT, 0.05);
+    }
+
+    /**
+     * Read-modify-write: half reads, half read-modify-writes.
+     */
+    public static WorkloadMix ycsbF(){
+        return of("F", KeyDistribution.ZIPFIAN, Operation.READ, 0.5, Operation.READ_MODIFY_WRITE, 0.5);
+    }
+
+    /**
+     * @param letter one of A to F, in either case
+     */
+    public static WorkloadMix ycsb(String letter){
+        switch (letter.toUpperCase()) {
+            case "A": return ycsbA();
+            case "B": return ycsbB();
+            case "C": return ycsbC();
+            case "D": return ycsbD();
+            case "E": return ycsbE();
+            case "F": return ycsbF();
+            default: throw new IllegalArgumentException("Unknown YCSB workload: " + letter);
+        }
+    }
+
+    /**
+     * @return the same operations with another key distribution
+     */
+    public WorkloadMix withDistribution(KeyDistribution distribution){
+        return new WorkloadMix(name, proportions, distribution, maxScanLength);
+    }
+
+    /**
+     * @param sample uniformly distributed in {@code [0, 1)}
+     */
+    Operation choose(double sample){
+        for (int i = 0; i < operations.length - 1; ++i){
+            if (sample < cumulative[i]){
+                return operations[i];
+            }
+        }
+        return operations[operations.length - 1];
+    }
+
+    public String getName() { return name; }
+
+    public KeyDistribution getDistribution() { return distribution; }
+
+    public int getMaxScanLength() { return maxScanLength; }
+}
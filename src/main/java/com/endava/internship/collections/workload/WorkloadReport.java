@@ -0,0 +1,128 @@
+package com.endava.internship.collections.workload;
+
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Throughput and latency percentiles of one workload run, per operation and over all of them.
+ */
+public final class WorkloadReport {
+    static final String CSV_HEADER = "variant,workload,threads,operation,count,throughput_ops_per_s,"
+            + "mean_ns,p50_ns,p99_ns,p99_9_ns,max_ns";
+
+    private final MapVariant variant;
+    private final String workload;
+    private final int threads;
+    private final long durationNanos;
+    private final Map<Operation, LatencyHistogram> histograms;
+    private final LatencyHistogram overall = new LatencyHistogram();
+
+    WorkloadReport(MapVariant variant, String workload, int threads, long durationNanos, Map<Operation, LatencyHistogram> histograms) {
+        this.variant = variant;
+        this.workload = workload;
+        this.threads = threads;
+        this.durationNanos = durationNanos;
+        this.histograms = histograms;
+        for (LatencyHistogram histogram : histograms.values()) {
+            overall.add(histogram);
+        }
+    }
+
+    public MapVariant getVariant() { return variant; }
+
+    public String getWorkload() { return workload; }
+
+    public long getOperationCount() { return overall.getCount(); }
+
+    public long getDurationNanos() { return durationNanos; }
+
+    public double getThroughput() {
+        return durationNanos == 0 ? 0 : overall.getCount() * 1e9 / durationNanos;
+    }
+
+    public LatencyHistogram getOverall() { return overall; }
+
+    /**
+     * @return the latencies of the operation, empty if it was never executed
+     */
+    public LatencyHistogram getHistogram(Operation operation) {
+        LatencyHistogram histogram = histograms.get(operation);
+        return histogram == null ? new LatencyHistogram() : histogram;
+    }
+
+    /**
+     * @return one line per executed operation and a last line named {@code ALL}, without the header
+     */
+    public String toCsvRows() {
+        StringBuilder csv = new StringBuilder();
+        for (Map.Entry<Operation, LatencyHistogram> entry : histograms.entrySet()) {
+            appendCsvRow(csv, entry.getKey().name(), entry.getValue());
+        }
+        appendCsvRow(csv, "ALL", overall);
+        return csv.toString();
+    }
+
+    public String toCsv() {
+        return CSV_HEADER + '\n' + toCsvRows();
+    }
+
+    private void appendCsvRow(StringBuilder csv, String operation, LatencyHistogram histogram) {
+        csv.append(variant).append(',')
+                .append(csvField(workload)).append(',')
+                .append(threads).append(',')
+                .append(operation).append(',')
+                .append(histogram.getCount()).append(',')
+                .append(String.format(Locale.ROOT, "%.1f", throughputOf(histogram))).append(',')
+                .append(String.format(Locale.ROOT, "%.1f", histogram.getMean())).append(',')
+                .append(histogram.getValueAtPercentile(50)).append(',')
+                .append(histogram.getValueAtPercentile(99)).append(',')
+                .append(histogram.getValueAtPercentile(99.9)).append(',')
+                .append(histogram.getMax()).append('\n');
+    }
+
+    /**
+     * Quotes a field holding a separator, quote or line break, doubling its quotes as RFC 4180 requires.
+     */
+    private static String csvField(String field) {
+        if (field.indexOf(',') < 0 && field.indexOf('"') < 0 && field.indexOf('\n') < 0 && field.indexOf('\r') < 0){
+            return field;
+        }
+        return '"' + field.replace("\"", "\"\"") + '"';
+    }
+
+    public String toJson() {
+        StringBuilder json = new StringBuilder();
+        json.append("{\"variant\":\"").append(variant)
+                .append("\",\"workload\":\"").append(workload.replace("\\", "\\\\").replace("\"", "\\\""))
+                .append("\",\"threads\":").append(threads)
+                .append(",\"durationNanos\":").append(durationNanos)
+                .append(",\"overall\":");
+        appendJsonHistogram(json, overall);
+        json.append(",\"operations\":{");
+        boolean first = true;
+        for (Map.Entry<Operation, LatencyHistogram> entry : histograms.entrySet()) {
+            if (!first){
+                json.append(',');
+            }
+            first = false;
+            json.append('"').append(entry.getKey()).append("\":");
+            appendJsonHistogram(json, entry.getValue());
+        }
+        return json.append("}}").toString();
+    }
+
+    private void appendJsonHistogram(StringBuilder json, LatencyHistogram histogram) {
+        json.append("{\"count\":").append(histogram.getCount())
+                .append(",\"throughputOpsPerSecond\":").append(String.format(Locale.ROOT, "%.1f", throughputOf(histogram)))
+                .append(",\"meanNanos\":").append(String.format(Locale.ROOT, "%.1f", histogram.getMean()))
+                .append(",\"p50Nanos\":").append(histogram.getValueAtPercentile(50))
+                .append(",\"p99Nanos\":").append(histogram.getValueAtPercentile(99))
+                .append(",\"p99_9Nanos\":").append(histogram.getValueAtPercentile(99.9))
+                .append(",\"maxNanos\":").append(histogram.getMax())
+                .append('}');
+    }
+
+    private double throughputOf(LatencyHistogram histogram) {
+        return durationNanos == 0 ? 0 : histogram.getCount() * 1e9 / durationNanos;
+    }
+}
@@ -0,0 +1,78 @@
+package com.endava.internship.collections.workload;
+
+import java.util.Random;
+
+/**
+ * Zipfian ranks after Gray et al., "Quickly Generating Billion-Record Synthetic Databases", as used by YCSB.
+ * Rank 0 is the most popular. The normalizing sum is extended incrementally as the item count grows,
+ * or given up front for an item count too large to sum.
+ */
+final class ZipfianGenerator {
+    static final double ZIPFIAN_CONSTANT = 0.99;
+
+    private final Random random;
+    private final double theta;
+    private final double alpha;
+    private final double zeta2;
+    private long items = 0;
+    private double zetaN = 0;
+    private double eta;
+
+    ZipfianGenerator(Random random) {
+        this(random, ZIPFIAN_CONSTANT);
+    }
+
+    ZipfianGenerator(Random random, double theta) {
+        this.random = random;
+        this.theta = theta;
+        this.alpha = 1 / (1 - theta);
+        this.zeta2 = 1 + Math.pow(0.5, theta);
+    }
+
+    /**
+     * @param zetaN normalizing sum of the first {@code items} terms, precomputed for the default constant
+     */
+    ZipfianGenerator(Random random, long items, double zetaN) {
+        this(random, ZIPFIAN_CONSTANT);
+        this.items = items;
+        this.zetaN = zetaN;
+        updateEta();
+    }
+
+    /**
+     * @return a rank in {@code [0, itemCount)}
+     */
+    long next(long itemCount) {
+        if (itemCount <= 0){
+            throw new IllegalArgumentException("Illegal item count: " + itemCount);
+        }
+        if (itemCount != items){
+            resize(itemCount);
+        }
+        double u = random.nextDouble();
+        double uz = u * zetaN;
+        if (uz < 1){
+            return 0;
+        }
+        if (uz < zeta2){
+            return Math.min(1, items - 1);
+        }
+        return Math.min(items - 1, (long) (items * Math.pow(eta * u - eta + 1, alpha)));
+    }
+
+    private void resize(long itemCount) {
+        if (itemCount < items){
+            items = 0;
+            zetaN = 0;
+        }
+        for (long i = items + 1; i <= itemCount; ++i){
+            zetaN += 1 / Math.pow(i, theta);
+        }
+        items = itemCount;
+        updateEta();
+    }
+
+    private void updateEta() {
+        eta = (1 - Math.pow(2.0 / items, 1 - theta)) / (1 - zeta2 / zetaN);
+    }
+}
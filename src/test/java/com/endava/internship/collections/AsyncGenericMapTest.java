@@ -0,0 +1,89 @@
+package com.endava.internship.collections;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.junit.jupiter.api.Assertions.assertAll;
+
+class AsyncGenericMapTest {
+
+    @Test
+    public void completesWithPreviousValues(){
+        AsyncGenericMap<String, Integer> asyncMap = new AsyncGenericMap<>();
+
+        assertAll(
+                () -> assertThat(asyncMap.putAsync("dummy", 1).join()).isNull(),
+                () -> assertThat(asyncMap.putAsync("dummy", 2).join()).isEqualTo(1),
+                () -> assertThat(asyncMap.getAsync("dummy").join()).isEqualTo(2),
+                () -> assertThat(asyncMap.removeAsync("dummy").join()).isEqualTo(2),
+                () -> assertThat(asyncMap.getAsync("dummy").join()).isNull()
+        );
+    }
+
+    @Test
+    public void appliesEveryRequest_whenCalledFromManyThreads() throws InterruptedException {
+        GenericMap<String, Integer> map = new GenericMap<>();
+        AsyncGenericMap<String, Integer> asyncMap = new AsyncGenericMap<>(map);
+        int threadCount = 16;
+        int keysPerThread = 1000;
+        ExecutorService executor = Executors.newFixedThreadPool(threadCount);
+        List<CompletableFuture<Integer>> results = new ArrayList<>();
+
+        for (int thread = 0; thread < threadCount; ++thread){
+            int prefix = thread;
+            executor.execute(() -> {
+                for (int i = 0; i < keysPerThread; ++i){
+                    CompletableFuture<Integer> result = asyncMap.putAsync(prefix + " " + i, i);
+                    synchronized (results) {
+                        results.add(result);
+                    }
+                }
+            });
+        }
+        executor.shutdown();
+        assertThat(executor.awaitTermination(30, TimeUnit.SECONDS)).isTrue();
+        CompletableFuture.allOf(results.toArray(new CompletableFuture<?>[0])).join();
+
+        assertAll(
+                () -> assertThat(map.size()).isEqualTo(threadCount * keysPerThread),
+                () -> assertThat(asyncMap.getAsync("15 999").join()).isEqualTo(999)
+        );
+    }
+
+    @Test
+    public void completesRequests_whenCallbacksSubmitAndWait() throws InterruptedException {
+        AsyncGenericMap<Integer, Integer> asyncMap = new AsyncGenericMap<>();
+        int threadCount = 8;
+        int requestsPerThread = 1000;
+        ExecutorService executor = Executors.newFixedThreadPool(threadCount);
+
+        for (int thread = 0; thread < threadCount; ++thread){
+            int offset = thread * requestsPerThread;
+            executor.execute(() -> {
+                for (int i = 0; i < requestsPerThread; ++i){
+                    asyncMap.putAsync(offset + i, i).thenAccept(previous -> asyncMap.putAsync(-1, 0).join()).join();
+                }
+            });
+        }
+        executor.shutdown();
+        assertThat(executor.awaitTermination(30, TimeUnit.SECONDS)).isTrue();
+
+        assertAll(
+                () -> assertThat(asyncMap.getAsync(threadCount * requestsPerThread - 1).join()).isEqualTo(requestsPerThread - 1),
+                () -> assertThat(asyncMap.getAsync(-1).join()).isZero()
+        );
+    }
+
+    @Test
+    public void throwsException_whenCreateWithNullMap(){
+        assertThatExceptionOfType(IllegalArgumentException.class).isThrownBy(() -> new AsyncGenericMap<String, Integer>(null));
+    }
+}
@@ -0,0 +1,95 @@
+package com.endava.internship.collections;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.junit.jupiter.api.Assertions.assertAll;
+
+class ChangeFeedTest {
+
+    GenericMap<String, Integer> genericMap;
+    ChangeFeed<String, Integer> changeFeed;
+    List<String> events;
+
+    @BeforeEach
+    void setUp() {
+        genericMap = new GenericMap<>();
+        changeFeed = new ChangeFeed<>(100);
+        genericMap.setChangeFeed(changeFeed);
+        events = new ArrayList<>();
+    }
+
+    private int pollEvents(int maxBatchSize){
+        return changeFeed.poll((type, key, oldValue, newValue) -> events.add(type + " " + key + " " + oldValue + " " + newValue),
+                maxBatchSize);
+    }
+
+    @Test
+    public void publishesEveryMutation_inOrder(){
+        genericMap.put("dummy", 1);
+        genericMap.put("dummy", 2);
+        genericMap.remove("dummy");
+        genericMap.remove("missing");
+        genericMap.clear();
+
+        int polled = pollEvents(10);
+
+        assertAll(
+                () -> assertThat(polled).isEqualTo(4),
+                () -> assertThat(events).containsExactly(
+                        "PUT dummy null 1",
+                        "REWRITE dummy 1 2",
+                        "REMOVE dummy 2 null",
+                        "CLEAR null null null"),
+                () -> assertThat(changeFeed.pending()).isZero()
+        );
+    }
+
+    @Test
+    public void handsOutEventsInBatches(){
+        for (int i = 0; i < 10; ++i){
+            genericMap.put("string " + i, i);
+        }
+
+        assertAll(
+                () -> assertThat(changeFeed.capacity()).isEqualTo(128),
+                () -> assertThat(pollEvents(4)).isEqualTo(4),
+                () -> assertThat(changeFeed.pending()).isEqualTo(6),
+                () -> assertThat(pollEvents(100)).isEqualTo(6),
+                () -> assertThat(events).hasSize(10)
+        );
+    }
+
+    @Test
+    public void writerWaitsForConsumer_whenBufferIsFull() throws InterruptedException {
+        ChangeFeed<String, Integer> smallFeed = new ChangeFeed<>(4);
+        genericMap.setChangeFeed(smallFeed);
+        int expectedEvents = 1000;
+        AtomicLong sum = new AtomicLong();
+        Thread consumer = new Thread(() -> {
+            int consumed = 0;
+            while (consumed < expectedEvents){
+                consumed += smallFeed.poll((type, key, oldValue, newValue) -> sum.addAndGet(newValue), 2);
+            }
+        });
+        consumer.start();
+
+        for (int i = 0; i < expectedEvents; ++i){
+            genericMap.put("string " + i, i);
+        }
+        consumer.join(10_000);
+
+        assertThat(sum.get()).isEqualTo(expectedEvents * (expectedEvents - 1L) / 2);
+    }
+
+    @Test
+    public void throwsException_whenCreateWithNonPositiveCapacity(){
+        assertThatExceptionOfType(IllegalArgumentException.class).isThrownBy(() -> new ChangeFeed<String, Integer>(0));
+    }
+}
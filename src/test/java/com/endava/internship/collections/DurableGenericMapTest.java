@@ -0,0 +1,164 @@
+package com.endava.internship.collections;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.junit.jupiter.api.Assertions.assertAll;
+
+class DurableGenericMapTest {
+
+    @TempDir
+    Path directory;
+
+    private DurableGenericMap<String, Integer> open(FsyncPolicy fsyncPolicy) throws IOException {
+        return DurableGenericMap.open(directory, DurableGenericMap.Codec.utf8(),
+                DurableGenericMap.Codec.serializable(), fsyncPolicy, 4096);
+    }
+
+    @ParameterizedTest
+    @EnumSource(FsyncPolicy.class)
+    public void recoversMutations_afterReopen(FsyncPolicy fsyncPolicy) throws IOException {
+        try (DurableGenericMap<String, Integer> map = open(fsyncPolicy)) {
+            map.put("first", 1);
+            map.put("second", 2);
+            map.put("first", 10);
+            map.remove("second");
+            map.put("third", null);
+        }
+
+        try (DurableGenericMap<String, Integer> map = open(fsyncPolicy)) {
+            assertAll(
+                    () -> assertThat(map.size()).isEqualTo(2),
+                    () -> assertThat(map.get("first")).isEqualTo(10),
+                    () -> assertThat(map.containsKey("second")).isFalse(),
+                    () -> assertThat(map.containsKey("third")).isTrue()
+            );
+        }
+    }
+
+    @ParameterizedTest
+    @EnumSource(FsyncPolicy.class)
+    public void recoversMutations_withoutClose(FsyncPolicy fsyncPolicy) throws IOException {
+        DurableGenericMap<String, Integer> crashed = open(fsyncPolicy);
+        crashed.put("first", 1);
+        crashed.clear();
+        crashed.put("second", 2);
+
+        try (DurableGenericMap<String, Integer> map = open(fsyncPolicy)) {
+            assertAll(
+                    () -> assertThat(map.size()).isEqualTo(1),
+                    () -> assertThat(map.get("second")).isEqualTo(2)
+            );
+        }
+    }
+
+    @Test
+    public void recoversFromSnapshotAndLogTail_afterCompaction() throws IOException {
+        int expectedLength = 1000;
+        try (DurableGenericMap<String, Integer> map = open(FsyncPolicy.GROUP_COMMIT)) {
+            for (int i = 0; i < expectedLength; ++i){
+                map.put("string " + i, i);
+            }
+            map.awaitCompaction();
+            map.put("string 0", -1);
+        }
+
+        try (DurableGenericMap<String, Integer> map = open(FsyncPolicy.GROUP_COMMIT)) {
+            assertAll(
+                    () -> assertThat(Files.exists(directory.resolve("snapshot"))).isTrue(),
+                    () -> assertThat(WriteAheadLog.segments(directory).size()).isLessThan(4),
+                    () -> assertThat(map.size()).isEqualTo(expectedLength),
+                    () -> assertThat(map.get("string 0")).isEqualTo(-1),
+                    () -> assertThat(map.get("string 999")).isEqualTo(999)
+            );
+        }
+    }
+
+    @Test
+    public void ignoresTornRecord_atLogTail() throws IOException {
+        try (DurableGenericMap<String, Integer> map = open(FsyncPolicy.EVERY_WRITE)) {
+            map.put("first", 1);
+            map.put("second", 2);
+        }
+        Path segment = WriteAheadLog.segmentPath(directory, 1);
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+            channel.truncate(Files.size(segment) - 3);
+        }
+
+        try (DurableGenericMap<String, Integer> map = open(FsyncPolicy.EVERY_WRITE)) {
+            assertAll(
+                    () -> assertThat(map.size()).isEqualTo(1),
+                    () -> assertThat(map.get("first")).isEqualTo(1)
+            );
+        }
+    }
+
+    @Test
+    public void replaceAll_logsEveryNewValue() throws IOException {
+        try (DurableGenericMap<String, Integer> map = open(FsyncPolicy.OS_DEFAULT)) {
+            map.put("first", 1);
+            map.put("second", 2);
+            map.replaceAll((key, value) -> value * 10);
+        }
+
+        try (DurableGenericMap<String, Integer> map = open(FsyncPolicy.OS_DEFAULT)) {
+            assertAll(
+                    () -> assertThat(map.get("first")).isEqualTo(10),
+                    () -> assertThat(map.get("second")).isEqualTo(20)
+            );
+        }
+    }
+
+    @Test
+    public void throwsException_whenOpenWithNonPositiveCompactionThreshold(){
+        assertThatExceptionOfType(IllegalArgumentException.class).isThrownBy(() -> DurableGenericMap.open(directory,
+                DurableGenericMap.Codec.utf8(), DurableGenericMap.Codec.utf8(), FsyncPolicy.OS_DEFAULT, 0));
+    }
+
+    @Test
+    public void throwsException_whenOpenWithNullFsyncPolicy(){
+        assertThatExceptionOfType(IllegalArgumentException.class).isThrownBy(() -> DurableGenericMap.open(directory,
+                DurableGenericMap.Codec.utf8(), DurableGenericMap.Codec.utf8(), null));
+    }
+
+    @Test
+    public void reportsFailedCompaction_onCloseInsteadOfLaterPut() throws IOException {
+        DurableGenericMap.Codec<String> failingInCompactor = new DurableGenericMap.Codec<String>() {
+            @Override
+            public byte[] encode(String value) throws IOException {
+                if (Thread.currentThread().getName().equals("durable-generic-map-compactor")){
+                    throw new IOException("Snapshot disk full");
+                }
+                return DurableGenericMap.Codec.utf8().encode(value);
+            }
+
+            @Override
+            public String decode(byte[] bytes) throws IOException {
+                return DurableGenericMap.Codec.utf8().decode(bytes);
+            }
+        };
+        DurableGenericMap<String, String> map = DurableGenericMap.open(directory, failingInCompactor,
+                DurableGenericMap.Codec.utf8(), FsyncPolicy.OS_DEFAULT, 64);
+        int expectedLength = 200;
+        for (int i = 0; i < expectedLength; ++i){
+            map.put("string " + i, String.valueOf(i));
+        }
+
+        assertAll(
+                () -> assertThat(map.size()).isEqualTo(expectedLength),
+                () -> assertThatExceptionOfType(UncheckedIOException.class).isThrownBy(map::close)
+                        .withRootCauseInstanceOf(IOException.class)
+        );
+    }
+}
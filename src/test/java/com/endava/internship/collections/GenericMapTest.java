@@ -6,10 +6,15 @@ import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.Arguments;
 import org.junit.jupiter.params.provider.MethodSource;
 
+import java.util.AbstractMap;
 import java.util.ArrayList;
+import java.util.ConcurrentModificationException;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -246,6 +251,123 @@ class GenericMapTest {
         assertThat(genericMap.entrySet().size()).isEqualTo(objectList.size());
     }
 
+    @Test
+    public void forEachVisitsEveryEntry(){
+        for(int i = 0; i < 100; ++i){
+            genericMap.put("string " + i, i);
+        }
+        Map<String, Integer> visited = new HashMap<>();
+
+        genericMap.forEach(visited::put);
+
+        assertAll(
+                () -> assertThat(visited).hasSize(100),
+                () -> assertThat(visited).containsEntry("string 42", 42)
+        );
+    }
+
+    @Test
+    public void replaceAllRewritesValuesInPlace(){
+        ChangeFeed<String, Integer> changeFeed = new ChangeFeed<>(256);
+        for(int i = 0; i < 100; ++i){
+            genericMap.put("string " + i, i);
+        }
+        genericMap.setChangeFeed(changeFeed);
+
+        genericMap.replaceAll((key, value) -> value * 2);
+
+        assertAll(
+                () -> assertThat(genericMap).hasSize(100),
+                () -> assertThat(genericMap.get("string 42")).isEqualTo(84),
+                () -> assertThat(changeFeed.pending()).isEqualTo(100)
+        );
+    }
+
+    @Test
+    public void entrySetRemoveIfRemovesMatchingEntries(){
+        genericMap.enableMembershipFilter(16, 0.01);
+        for(int i = 0; i < 100; ++i){
+            genericMap.put("string " + i, i);
+        }
+
+        boolean removed = genericMap.entrySet().removeIf(entry -> entry.getValue() % 2 == 0);
+
+        assertAll(
+                () -> assertThat(removed).isTrue(),
+                () -> assertThat(genericMap).hasSize(50),
+                () -> assertThat(genericMap.containsKey("string 42")).isFalse(),
+                () -> assertThat(genericMap.get("string 43")).isEqualTo(43),
+                () -> assertThat(genericMap.entrySet().removeIf(entry -> entry.getValue() > 100)).isFalse()
+        );
+    }
+
+    @Test
+    public void throwsException_whenBulkOperationsGetNullArgument(){
+        assertAll(
+                () -> assertThatExceptionOfType(NullPointerException.class).isThrownBy(() -> genericMap.forEach(null)),
+                () -> assertThatExceptionOfType(NullPointerException.class).isThrownBy(() -> genericMap.replaceAll(null)),
+                () -> assertThatExceptionOfType(NullPointerException.class).isThrownBy(() -> genericMap.entrySet().removeIf(null))
+        );
+    }
+
+    @Test
+    public void bulkOperationsFailFast_whenCallbackPutsNewKey(){
+        for(int i = 0; i < 10; ++i){
+            genericMap.put("string " + i, i);
+        }
+        AtomicInteger inserted = new AtomicInteger();
+
+        assertAll(
+                () -> assertThatExceptionOfType(ConcurrentModificationException.class).isThrownBy(() -> genericMap.forEach(
+                        (key, value) -> genericMap.put("forEach " + inserted.incrementAndGet(), value))),
+                () -> assertThatExceptionOfType(ConcurrentModificationException.class).isThrownBy(() -> genericMap.replaceAll(
+                        (key, value) -> genericMap.put("replaceAll " + inserted.incrementAndGet(), value))),
+                () -> assertThatExceptionOfType(ConcurrentModificationException.class).isThrownBy(() -> genericMap.entrySet().removeIf(
+                        entry -> genericMap.put("removeIf " + inserted.incrementAndGet(), entry.getValue()) == null))
+        );
+    }
+
+    @Test
+    public void entrySetIteratorFailsFast_whenMapIsChangedInStructure(){
+        genericMap.put(dummy, 1);
+        Iterator<Map.Entry<String, Integer>> rehashedIterator = genericMap.entrySet().iterator();
+        for(int i = 0; i < 100; ++i){
+            genericMap.put("string " + i, i);
+        }
+        Iterator<Map.Entry<String, Integer>> removedIterator = genericMap.entrySet().iterator();
+        removedIterator.next();
+        genericMap.remove(dummy);
+        Iterator<Map.Entry<String, Integer>> rewrittenIterator = genericMap.entrySet().iterator();
+        genericMap.put("string 42", -42);
+
+        assertAll(
+                () -> assertThatExceptionOfType(ConcurrentModificationException.class).isThrownBy(rehashedIterator::next),
+                () -> assertThatExceptionOfType(ConcurrentModificationException.class).isThrownBy(removedIterator::remove),
+                () -> assertThat(rewrittenIterator.next()).isNotNull()
+        );
+    }
+
+    @Test
+    public void entrySetWritesThroughToMap(){
+        genericMap.put("dummy", 1);
+        genericMap.put("string", 2);
+
+        Iterator<Map.Entry<String, Integer>> iterator = genericMap.entrySet().iterator();
+        Map.Entry<String, Integer> first = iterator.next();
+        first.setValue(10);
+        iterator.remove();
+        Map.Entry<String, Integer> second = iterator.next();
+        second.setValue(20);
+
+        assertAll(
+                () -> assertThat(iterator.hasNext()).isFalse(),
+                () -> assertThat(genericMap).hasSize(1),
+                () -> assertThat(genericMap.get(second.getKey())).isEqualTo(20),
+                () -> assertThat(genericMap.containsKey(first.getKey())).isFalse(),
+                () -> assertThat(genericMap.entrySet()).containsExactly(new AbstractMap.SimpleEntry<>(second.getKey(), 20))
+        );
+    }
+
     @Test
     public void rehashingDoesNotAffectMapContents(){
         int expectedLength = 100;
@@ -257,6 +379,67 @@ class GenericMapTest {
     }
 
 
+    @Test
+    public void getAll_returnsValuesInKeyOrder(){
+        for(int i = 0; i < 100; ++i){
+            genericMap.put("string " + i, i);
+        }
+        String[] keys = {"string 99", "missing", "string 0", null, "string 42"};
+        Integer[] out = {-1, -1, -1, -1, -1};
+
+        genericMap.getAll(keys, out);
+
+        assertThat(out).containsExactly(99, null, 0, null, 42);
+    }
+
+    @Test
+    public void putAllArrays_putsEveryPair(){
+        int expectedLength = 100;
+        String[] keys = new String[expectedLength];
+        Integer[] values = new Integer[expectedLength];
+        for(int i = 0; i < expectedLength; ++i){
+            keys[i] = "string " + i;
+            values[i] = i;
+        }
+        genericMap.put("string 5", -5);
+
+        genericMap.putAll(keys, values);
+
+        assertAll(
+                () -> assertThat(genericMap.size()).isEqualTo(expectedLength),
+                () -> assertThat(genericMap.get("string 5")).isEqualTo(5),
+                () -> assertThat(genericMap.get("string 99")).isEqualTo(99)
+        );
+    }
+
+    @Test
+    public void putAllArrays_doesNotGrowTable_whenOverwritingPresentKeys(){
+        String[] keys = new String[100];
+        Integer[] values = new Integer[100];
+        for(int i = 0; i < keys.length; ++i){
+            keys[i] = "string " + i;
+            values[i] = i;
+            genericMap.put(keys[i], -i);
+        }
+        int buckets = genericMap.memoryFootprint().getBuckets();
+
+        genericMap.putAll(keys, values);
+        genericMap.putAll(new String[]{dummy, dummy}, new Integer[]{1, 2});
+
+        assertAll(
+                () -> assertThat(genericMap.memoryFootprint().getBuckets()).isEqualTo(buckets),
+                () -> assertThat(genericMap.size()).isEqualTo(101),
+                () -> assertThat(genericMap.get("string 42")).isEqualTo(42),
+                () -> assertThat(genericMap.get(dummy)).isEqualTo(2)
+        );
+    }
+
+    @Test
+    public void throwsException_whenBatchOutputIsShorterThanKeys(){
+        assertThatExceptionOfType(IllegalArgumentException.class)
+                .isThrownBy(() -> genericMap.getAll(new String[]{dummy}, new Integer[0]));
+    }
+
     /*
      * * ------------------------- *
      * The way keys and values are stored internally can differ (first element in the bucket,
@@ -271,7 +454,7 @@ class GenericMapTest {
             genericMap.put(object, 1);
         }
         //removing first element in the bucket
-        String firstObjectInTheBucket = "string 1";
+        String firstObjectInTheBucket = "string 4";
         genericMap.remove(firstObjectInTheBucket);
 
         assertAll(
@@ -312,15 +495,251 @@ class GenericMapTest {
         );
     }
 
+    @ParameterizedTest
+    @MethodSource("provideObjectListWithTheSameHashIndex")
+    public void sizeUnchanged_whenOverwritingEveryObjectInTheBucket(List<String> objectList){
+        for (String object : objectList) {
+            genericMap.put(object, 1);
+        }
+        for (String object : objectList) {
+            genericMap.put(object, 2);
+        }
+
+        assertAll(
+                () -> assertThat(genericMap.size()).isEqualTo(objectList.size()),
+                () -> assertThat(genericMap.values()).containsOnly(2)
+        );
+    }
+
+    @Test
+    public void getsEveryValue_afterRehashing(){
+        int expectedLength = 100;
+        for(int i = 0; i < expectedLength; ++i){
+            genericMap.put("string " + i, i);
+        }
+
+        for(int i = 0; i < expectedLength; ++i){
+            assertThat(genericMap.get("string " + i)).isEqualTo(i);
+        }
+    }
+
+    @Test
+    public void findsKeysIgnoringCase_withCaseInsensitiveHashing(){
+        GenericMap<String, Integer> caseInsensitiveMap = new GenericMap<>(Hashing.caseInsensitive());
+        caseInsensitiveMap.put("Dummy", 1);
+        caseInsensitiveMap.put("DUMMY", 2);
+
+        assertAll(
+                () -> assertThat(caseInsensitiveMap.size()).isEqualTo(1),
+                () -> assertThat(caseInsensitiveMap.get("dummy")).isEqualTo(2),
+                () -> assertThat(caseInsensitiveMap.keySet()).containsExactly("Dummy"),
+                () -> assertThat(caseInsensitiveMap.get(1)).isNull()
+        );
+    }
+
+    @Test
+    public void findsArrayKeysByContents_withArrayHashing(){
+        GenericMap<byte[], Integer> arrayMap = new GenericMap<>(Hashing.arrays());
+        arrayMap.put(new byte[]{1, 2, 3}, 1);
+
+        assertAll(
+                () -> assertThat(arrayMap.get(new byte[]{1, 2, 3})).isEqualTo(1),
+                () -> assertThat(arrayMap.containsKey(new byte[]{1, 2})).isFalse(),
+                () -> assertThat(arrayMap.remove(new byte[]{1, 2, 3})).isEqualTo(1)
+        );
+    }
+
+    @Test
+    public void distinguishesEqualKeys_withIdentityHashing(){
+        GenericMap<String, Integer> identityMap = new GenericMap<>(Hashing.identity());
+        String key = new String(dummy);
+        identityMap.put(key, 1);
+        identityMap.put(new String(dummy), 2);
+
+        assertAll(
+                () -> assertThat(identityMap.size()).isEqualTo(2),
+                () -> assertThat(identityMap.get(key)).isEqualTo(1),
+                () -> assertThat(identityMap.get(dummy)).isNull()
+        );
+    }
+
+    @Test
+    public void skipsEqualsAndKeepsHashes_withCachedNodeHashes(){
+        AtomicInteger hashCalls = new AtomicInteger();
+        AtomicInteger equalsCalls = new AtomicInteger();
+        Hashing<Integer> countingHashing = new Hashing<Integer>() {
+            @Override
+            public int hash(Object key) {
+                hashCalls.incrementAndGet();
+                //distinct hashes whose low bits all select the first bucket
+                return (Integer) key << 24;
+            }
+
+            @Override
+            public boolean equals(Integer storedKey, Object key) {
+                equalsCalls.incrementAndGet();
+                return storedKey.equals(key);
+            }
+        };
+        GenericMap<Integer, Integer> countingMap = new GenericMap<>(countingHashing);
+        for (int i = 1000; i < 1100; ++i){
+            countingMap.put(i, i);
+        }
+        int hashCallsAfterPuts = hashCalls.get();
+        equalsCalls.set(0);
+
+        Integer value = countingMap.get(1099);
+
+        assertAll(
+                () -> assertThat(hashCallsAfterPuts).isEqualTo(100),
+                () -> assertThat(value).isEqualTo(1099),
+                () -> assertThat(equalsCalls.get()).isEqualTo(1)
+        );
+    }
+
+    @Test
+    public void throwsException_whenCreateWithNullHashing(){
+        assertThatExceptionOfType(IllegalArgumentException.class).isThrownBy(() -> new GenericMap<String, Integer>(16, null));
+    }
+
+    @Test
+    public void membershipFilterKeepsLookupsExact_acrossGrowthAndRemoval(){
+        genericMap.put(dummy, -1);
+        genericMap.enableMembershipFilter(10, 0.01);
+        int expectedLength = 1000;
+        for(int i = 0; i < expectedLength; ++i){
+            genericMap.put("string " + i, i);
+        }
+        for(int i = 0; i < expectedLength; i += 2){
+            genericMap.remove("string " + i);
+        }
+        String[] keys = {"string 1", "string 2", dummy};
+        Integer[] out = new Integer[keys.length];
+        genericMap.getAll(keys, out);
+
+        assertAll(
+                () -> assertThat(genericMap.get(dummy)).isEqualTo(-1),
+                () -> assertThat(genericMap.get("string 999")).isEqualTo(999),
+                () -> assertThat(genericMap.containsKey("string 998")).isFalse(),
+                () -> assertThat(genericMap.get("missing")).isNull(),
+                () -> assertThat(out).containsExactly(1, null, -1)
+        );
+    }
+
+    @Test
+    public void throwsException_whenEnablingMembershipFilterWithIllegalRate(){
+        assertThatExceptionOfType(IllegalArgumentException.class)
+                .isThrownBy(() -> genericMap.enableMembershipFilter(100, 1.5));
+    }
+
+    @Test
+    public void hotKeyCacheServesCurrentValues_acrossRewriteRemoveAndClear(){
+        genericMap.enableHotKeyCache(8);
+        for(int i = 0; i < 100; ++i){
+            genericMap.put("string " + i, i);
+        }
+        for(int read = 0; read < 100; ++read){
+            genericMap.get(dummy);
+            genericMap.get("string 7");
+        }
+        boolean promoted = genericMap.isHotKeyCached("string 7");
+
+        genericMap.put("string 7", -7);
+        boolean cachedAfterRewrite = genericMap.isHotKeyCached("string 7");
+        Integer rewritten = genericMap.get("string 7");
+        genericMap.remove("string 7");
+        Integer removed = genericMap.get("string 7");
+        genericMap.put("string 7", 7);
+        Integer reinserted = genericMap.get("string 7");
+        genericMap.clear();
+
+        assertAll(
+                () -> assertThat(promoted).isTrue(),
+                () -> assertThat(cachedAfterRewrite).isTrue(),
+                () -> assertThat(rewritten).isEqualTo(-7),
+                () -> assertThat(removed).isNull(),
+                () -> assertThat(reinserted).isEqualTo(7),
+                () -> assertThat(genericMap.get("string 7")).isNull(),
+                () -> assertThat(genericMap.get(dummy)).isNull()
+        );
+    }
+
+    @Test
+    public void hotKeyCacheKeepsHotKey_whenColderKeyCompetesForItsSlot(){
+        genericMap.enableHotKeyCache(1);
+        for(int i = 0; i < 100; ++i){
+            genericMap.put("string " + i, i);
+        }
+        int coldKeyPromotions = 0;
+        for(int round = 0; round < 1000; ++round){
+            for(int read = 0; read < 9; ++read){
+                genericMap.get("string 7");
+            }
+            genericMap.get("string 8");
+            if (genericMap.isHotKeyCached("string 8")){
+                ++coldKeyPromotions;
+            }
+        }
+
+        assertThat(coldKeyPromotions).isZero();
+    }
+
+    @Test
+    public void keepsEveryEntry_whenRehashedInParallel(){
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            GenericMap<Integer, Integer> largeMap = new GenericMap<>();
+            largeMap.enableParallelRehash(pool);
+            int expectedLength = 200_000;
+            for(int i = 0; i < expectedLength; ++i){
+                largeMap.put(i, i);
+            }
+
+            assertThat(largeMap.size()).isEqualTo(expectedLength);
+            for(int i = 0; i < expectedLength; ++i){
+                assertThat(largeMap.get(i)).isEqualTo(i);
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void parallelPutAllLoadsEveryEntry_andOverwritesExistingKeys(){
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            Map<String, Integer> source = new HashMap<>();
+            int expectedLength = 100_000;
+            for(int i = 0; i < expectedLength; ++i){
+                source.put("string " + i, i);
+            }
+            genericMap.put("string 7", -7);
+            genericMap.put(dummy, -1);
+            genericMap.enableMembershipFilter(10, 0.01);
+
+            genericMap.parallelPutAll(source, pool);
+
+            assertAll(
+                    () -> assertThat(genericMap.size()).isEqualTo(expectedLength + 1),
+                    () -> assertThat(genericMap.get("string 7")).isEqualTo(7),
+                    () -> assertThat(genericMap.get("string 99999")).isEqualTo(99999),
+                    () -> assertThat(genericMap.get(dummy)).isEqualTo(-1),
+                    () -> assertThat(genericMap.keySet()).hasSize(expectedLength + 1)
+            );
+        } finally {
+            pool.shutdown();
+        }
+    }
+
     public static Stream<Arguments> provideObjectListWithTheSameHashIndex(){
         List<String> objectList = new ArrayList<>();
 
         //if map has default initial capacity and has not been rehashed,
         //all three objects should produce the same hash index (!but not the same hashcode),
-        // and consequently, will be placed in the same bucket in this order.
-        objectList.add("string 1");
-        objectList.add("string 10");
+        // and consequently, will be placed in the same bucket, each one in front of the previous.
         objectList.add("string 21");
+        objectList.add("string 10");
+        objectList.add("string 4");
 
         return Stream.of(
                 Arguments.of(objectList)
@@ -0,0 +1,136 @@
+package com.endava.internship.collections;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.junit.jupiter.api.Assertions.assertAll;
+
+class GenericMultiMapTest {
+
+    GenericMultiMap<String, String> multiMap;
+
+    @BeforeEach
+    void setUp() {
+        multiMap = new GenericMultiMap<>();
+    }
+
+    @Test
+    public void keepsEveryValueOfKey_inInsertionOrder(){
+        for (int i = 0; i < 10; ++i){
+            multiMap.putValue("dummy", "value " + i);
+        }
+        multiMap.putValue("string", "value 0");
+
+        assertAll(
+                () -> assertThat(multiMap.size()).isEqualTo(11),
+                () -> assertThat(multiMap.keyCount()).isEqualTo(2),
+                () -> assertThat(multiMap.valuesFor("dummy")).hasSize(10).startsWith("value 0", "value 1"),
+                () -> assertThat(multiMap.valuesFor("string")).containsExactly("value 0"),
+                () -> assertThat(multiMap.valuesFor("missing")).isEmpty()
+        );
+    }
+
+    @Test
+    public void valuesViewFollowsLaterChanges(){
+        List<String> values = multiMap.valuesFor("dummy");
+        multiMap.putValue("dummy", "first");
+        multiMap.putValue("dummy", "second");
+        multiMap.putValue("dummy", "first");
+
+        boolean removed = multiMap.removeValue("dummy", "first");
+
+        assertAll(
+                () -> assertThat(removed).isTrue(),
+                () -> assertThat(values).containsExactly("second", "first"),
+                () -> assertThat(multiMap.removeValue("dummy", "missing")).isFalse()
+        );
+    }
+
+    @Test
+    public void dropsKey_whenLastValueIsRemoved(){
+        multiMap.putValue("dummy", "value");
+        multiMap.removeValue("dummy", "value");
+
+        assertAll(
+                () -> assertThat(multiMap.containsKey("dummy")).isFalse(),
+                () -> assertThat(multiMap.isEmpty()).isTrue(),
+                () -> assertThat(multiMap.keyCount()).isZero()
+        );
+    }
+
+    @Test
+    public void removeKeyRemovesAllItsValues(){
+        multiMap.putValue("dummy", "first");
+        multiMap.putValue("dummy", "second");
+        multiMap.putValue("string", "third");
+
+        assertAll(
+                () -> assertThat(multiMap.removeKey("dummy")).isEqualTo(2),
+                () -> assertThat(multiMap.size()).isEqualTo(1),
+                () -> assertThat(multiMap.removeKey("dummy")).isZero()
+        );
+    }
+
+    @Test
+    public void forEachVisitsEveryPair(){
+        multiMap.putValue("dummy", "first");
+        multiMap.putValue("dummy", "second");
+        multiMap.putValue("string", "third");
+        Map<String, List<String>> visited = new HashMap<>();
+
+        multiMap.forEach((key, value) -> visited.computeIfAbsent(key, k -> new ArrayList<>()).add(value));
+
+        assertAll(
+                () -> assertThat(visited.get("dummy")).containsExactly("first", "second"),
+                () -> assertThat(visited.get("string")).containsExactly("third")
+        );
+    }
+
+    @Test
+    public void keepsNullValues(){
+        multiMap.putValue("dummy", null);
+        multiMap.putValue("dummy", "value");
+        multiMap.putValue("dummy", null);
+
+        boolean removed = multiMap.removeValue("dummy", null);
+
+        assertAll(
+                () -> assertThat(removed).isTrue(),
+                () -> assertThat(multiMap.size()).isEqualTo(2),
+                () -> assertThat(multiMap.valuesFor("dummy")).containsExactly("value", null)
+        );
+    }
+
+    @Test
+    public void takesLessMemoryThanMapOfLists(){
+        int keyCount = 1000;
+        GenericMap<String, List<String>> nestedMap = new GenericMap<>();
+        for (int i = 0; i < keyCount; ++i){
+            for (int value = 0; value < 3; ++value){
+                multiMap.putValue("string " + i, "value " + value);
+                nestedMap.computeIfAbsent("string " + i, key -> new ArrayList<>()).add("value " + value);
+            }
+        }
+        ObjectLayout layout = ObjectLayout.CURRENT;
+        long perList = layout.instanceSize(ArrayList.class) + layout.referenceArraySize(10);
+        long nestedBytes = nestedMap.estimatedMemoryBytes() + keyCount * perList;
+
+        assertThat(multiMap.estimatedMemoryBytes())
+                .isEqualTo(nestedMap.estimatedMemoryBytes() + keyCount * layout.referenceArraySize(4))
+                .isLessThan(nestedBytes);
+    }
+
+    @Test
+    public void throwsException_whenReadingPastLastValue(){
+        multiMap.putValue("dummy", "value");
+
+        assertThatExceptionOfType(IndexOutOfBoundsException.class).isThrownBy(() -> multiMap.valuesFor("dummy").get(1));
+    }
+}
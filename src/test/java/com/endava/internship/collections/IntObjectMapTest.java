@@ -0,0 +1,66 @@
+package com.endava.internship.collections;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.junit.jupiter.api.Assertions.assertAll;
+
+class IntObjectMapTest {
+
+    IntObjectMap<String> intMap;
+
+    @BeforeEach
+    void setUp() {
+        intMap = new IntObjectMap<>();
+    }
+
+    @Test
+    public void putAndGetWorks(){
+        intMap.put(0, "zero");
+        intMap.put(Integer.MAX_VALUE, "max");
+        intMap.put(-1, "string");
+
+        assertAll(
+                () -> assertThat(intMap.get(0)).isEqualTo("zero"),
+                () -> assertThat(intMap.get(Integer.MAX_VALUE)).isEqualTo("max"),
+                () -> assertThat(intMap.get(-1)).isEqualTo("string"),
+                () -> assertThat(intMap.get(1)).isNull(),
+                () -> assertThat(intMap.size()).isEqualTo(3)
+        );
+    }
+
+    @Test
+    public void keepsSameContentsAsHashMap_afterRandomPutsAndRemoves(){
+        Map<Integer, String> expected = new HashMap<>();
+        Random random = new Random(42);
+        for (int i = 0; i < 100_000; ++i){
+            int key = random.nextInt(2_000) - 1_000;
+            if (random.nextInt(3) == 0){
+                assertThat(intMap.remove(key)).isEqualTo(expected.remove(key));
+            } else {
+                assertThat(intMap.put(key, "string " + i)).isEqualTo(expected.put(key, "string " + i));
+            }
+        }
+
+        assertAll(
+                () -> assertThat(intMap.size()).isEqualTo(expected.size()),
+                () -> assertThat(intMap.asMap()).isEqualTo(expected)
+        );
+    }
+
+    @Test
+    public void throwsException_whenCreateWithNegativeCapacity(){
+        assertThatExceptionOfType(IllegalArgumentException.class).isThrownBy(() -> new IntObjectMap<String>(-1));
+    }
+
+    @Test
+    public void throwsException_whenPutNullKeyThroughMapView(){
+        assertThatExceptionOfType(NullPointerException.class).isThrownBy(() -> intMap.asMap().put(null, "dummy"));
+    }
+}
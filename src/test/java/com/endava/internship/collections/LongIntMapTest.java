@@ -0,0 +1,79 @@
+package com.endava.internship.collections;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.junit.jupiter.api.Assertions.assertAll;
+
+class LongIntMapTest {
+
+    LongIntMap longIntMap;
+
+    @BeforeEach
+    void setUp() {
+        longIntMap = new LongIntMap(16, -1);
+    }
+
+    @Test
+    public void returnsMissingValue_whenKeyIsAbsent(){
+        longIntMap.put(5L, 50);
+
+        assertAll(
+                () -> assertThat(longIntMap.get(5L)).isEqualTo(50),
+                () -> assertThat(longIntMap.get(6L)).isEqualTo(-1),
+                () -> assertThat(longIntMap.get(0L)).isEqualTo(-1),
+                () -> assertThat(longIntMap.put(6L, 60)).isEqualTo(-1),
+                () -> assertThat(longIntMap.remove(7L)).isEqualTo(-1),
+                () -> assertThat(longIntMap.remove(5L)).isEqualTo(50)
+        );
+    }
+
+    @Test
+    public void keepsSameContentsAsHashMap_afterRandomPutsAndRemoves(){
+        Map<Long, Integer> expected = new HashMap<>();
+        Random random = new Random(42);
+        for (int i = 0; i < 100_000; ++i){
+            long key = random.nextInt(2_000) - 1_000;
+            if (random.nextInt(3) == 0){
+                Integer removed = expected.remove(key);
+                assertThat(longIntMap.remove(key)).isEqualTo(removed == null ? -1 : removed);
+            } else {
+                Integer replaced = expected.put(key, i);
+                assertThat(longIntMap.put(key, i)).isEqualTo(replaced == null ? -1 : replaced);
+            }
+        }
+
+        assertAll(
+                () -> assertThat(longIntMap.size()).isEqualTo(expected.size()),
+                () -> assertThat(longIntMap.asMap()).isEqualTo(expected)
+        );
+    }
+
+    @Test
+    public void mapViewReadsAbsentKeysAsNull(){
+        longIntMap.put(0L, 0);
+        Map<Long, Integer> boxedMap = longIntMap.asMap();
+
+        assertAll(
+                () -> assertThat(boxedMap.get(0L)).isZero(),
+                () -> assertThat(boxedMap.get(1L)).isNull(),
+                () -> assertThat(boxedMap.put(0L, 10)).isZero(),
+                () -> assertThat(boxedMap.remove(1L)).isNull(),
+                () -> assertThat(longIntMap.get(0L)).isEqualTo(10)
+        );
+    }
+
+    @Test
+    public void throwsException_whenPutNullThroughMapView(){
+        assertAll(
+                () -> assertThatExceptionOfType(NullPointerException.class).isThrownBy(() -> longIntMap.asMap().put(1L, null)),
+                () -> assertThatExceptionOfType(NullPointerException.class).isThrownBy(() -> longIntMap.asMap().put(null, 1))
+        );
+    }
+}
@@ -0,0 +1,121 @@
+package com.endava.internship.collections;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.junit.jupiter.api.Assertions.assertAll;
+
+class LongObjectMapTest {
+
+    LongObjectMap<String> longMap;
+
+    @BeforeEach
+    void setUp() {
+        longMap = new LongObjectMap<>();
+    }
+
+    @Test
+    public void putAndGetWorks(){
+        longMap.put(42L, "dummy");
+        longMap.put(-7L, "string");
+        longMap.put(Long.MIN_VALUE, "min");
+
+        assertAll(
+                () -> assertThat(longMap.get(42L)).isEqualTo("dummy"),
+                () -> assertThat(longMap.get(-7L)).isEqualTo("string"),
+                () -> assertThat(longMap.get(Long.MIN_VALUE)).isEqualTo("min"),
+                () -> assertThat(longMap.get(43L)).isNull(),
+                () -> assertThat(longMap.size()).isEqualTo(3)
+        );
+    }
+
+    @Test
+    public void zeroKeyIsStoredLikeAnyOther(){
+        assertThat(longMap.containsKey(0L)).isFalse();
+
+        longMap.put(0L, "zero");
+        String oldValue = longMap.put(0L, "updated");
+
+        assertAll(
+                () -> assertThat(oldValue).isEqualTo("zero"),
+                () -> assertThat(longMap.get(0L)).isEqualTo("updated"),
+                () -> assertThat(longMap.size()).isEqualTo(1),
+                () -> assertThat(longMap.remove(0L)).isEqualTo("updated"),
+                () -> assertThat(longMap.containsKey(0L)).isFalse(),
+                () -> assertThat(longMap.isEmpty()).isTrue()
+        );
+    }
+
+    @Test
+    public void keepsSameContentsAsHashMap_afterRandomPutsAndRemoves(){
+        Map<Long, String> expected = new HashMap<>();
+        Random random = new Random(42);
+        for (int i = 0; i < 100_000; ++i){
+            long key = random.nextInt(2_000) - 1_000;
+            if (random.nextInt(3) == 0){
+                assertThat(longMap.remove(key)).isEqualTo(expected.remove(key));
+            } else {
+                assertThat(longMap.put(key, "string " + i)).isEqualTo(expected.put(key, "string " + i));
+            }
+        }
+
+        assertAll(
+                () -> assertThat(longMap.size()).isEqualTo(expected.size()),
+                () -> assertThat(longMap.asMap()).isEqualTo(expected)
+        );
+    }
+
+    @Test
+    public void forEachVisitsEveryEntry(){
+        for (long key = 0; key < 100; ++key){
+            longMap.put(key, "string " + key);
+        }
+        Map<Long, String> visited = new HashMap<>();
+
+        longMap.forEach(visited::put);
+
+        assertThat(visited).isEqualTo(longMap.asMap()).hasSize(100);
+    }
+
+    @Test
+    public void asMapWritesThrough(){
+        Map<Long, String> boxedMap = longMap.asMap();
+        boxedMap.put(1L, "dummy");
+        boxedMap.put(0L, "zero");
+        boxedMap.entrySet().iterator().next().setValue("updated");
+        boxedMap.remove(1L);
+
+        assertAll(
+                () -> assertThat(longMap.size()).isEqualTo(1),
+                () -> assertThat(longMap.get(0L)).isEqualTo("updated"),
+                () -> assertThat(boxedMap.get("string")).isNull()
+        );
+    }
+
+    @Test
+    public void estimatesLessMemoryThanGenericMap(){
+        GenericMap<Long, String> genericMap = new GenericMap<>();
+        for (long key = 1; key <= 1_000; ++key){
+            longMap.put(key, "dummy");
+            genericMap.put(key, "dummy");
+        }
+
+        assertThat(longMap.estimatedMemoryBytes()).isLessThan(genericMap.estimatedMemoryBytes());
+    }
+
+    @Test
+    public void throwsException_whenCreateWithNegativeCapacity(){
+        assertThatExceptionOfType(IllegalArgumentException.class).isThrownBy(() -> new LongObjectMap<String>(-1));
+    }
+
+    @Test
+    public void throwsException_whenPutNullKeyThroughMapView(){
+        assertThatExceptionOfType(NullPointerException.class).isThrownBy(() -> longMap.asMap().put(null, "dummy"));
+    }
+}
@@ -0,0 +1,128 @@
+package com.endava.internship.collections;
+
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+import static org.junit.jupiter.api.Assertions.assertAll;
+
+class MemoryFootprintTest {
+
+    private static final int ENTRIES = 10_000;
+
+    private static long allocatedBytes(){
+        return ((com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean()).getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    @Test
+    public void estimateMatchesAllocatedBytes_whenMapIsFilled(){
+        String[] keys = new String[ENTRIES];
+        Integer[] values = new Integer[ENTRIES];
+        for (int i = 0; i < ENTRIES; ++i){
+            keys[i] = "string " + i;
+            values[i] = i;
+        }
+
+        long before = allocatedBytes();
+        GenericMap<String, Integer> genericMap = new GenericMap<>(ENTRIES * 2);
+        for (int i = 0; i < ENTRIES; ++i){
+            genericMap.put(keys[i], values[i]);
+        }
+        long allocated = allocatedBytes() - before;
+
+        assertThat((double) genericMap.estimatedMemoryBytes()).isCloseTo(allocated, within(allocated * 0.1));
+    }
+
+    @Test
+    public void reportsTableAndNodes(){
+        GenericMap<String, Integer> genericMap = new GenericMap<>();
+        genericMap.put("dummy", 1);
+        genericMap.put("string", 2);
+
+        MemoryFootprint footprint = genericMap.memoryFootprint();
+
+        assertAll(
+                () -> assertThat(footprint.getEntries()).isEqualTo(2),
+                () -> assertThat(footprint.getBuckets()).isEqualTo(16),
+                () -> assertThat(footprint.getEmptyBuckets()).isBetween(14, 15),
+                () -> assertThat(footprint.getTableBytes()).isEqualTo(ObjectLayout.CURRENT.referenceArraySize(16)),
+                () -> assertThat(footprint.getNodeBytes()).isEqualTo(2 * ObjectLayout.CURRENT.instanceSize(GenericMap.Node.class)),
+                () -> assertThat(footprint.getTotalBytes()).isEqualTo(genericMap.estimatedMemoryBytes()),
+                () -> assertThat(footprint.getBytesPerEntry()).isEqualTo(footprint.getTotalBytes() / 2.0)
+        );
+    }
+
+    @Test
+    public void emptyMapHasOnlyEmptyBuckets(){
+        MemoryFootprint footprint = new GenericMap<String, Integer>().memoryFootprint();
+
+        assertAll(
+                () -> assertThat(footprint.getNodeBytes()).isZero(),
+                () -> assertThat(footprint.getEmptyBucketRatio()).isEqualTo(1.0)
+        );
+    }
+
+    @Test
+    public void studentMapReportsItsFootprint(){
+        StudentMap studentMap = new StudentMap();
+        studentMap.put(new Student("Name", LocalDate.of(2000, 1, 1), "details"), 1);
+
+        assertThat(studentMap.memoryFootprint().getNodeBytes())
+                .isEqualTo(ObjectLayout.CURRENT.instanceSize(StudentMap.IndexedNode.class));
+    }
+
+    @Test
+    public void compactStudentMapCountsItsKeyPool(){
+        StudentMap standardMap = new StudentMap(16, StudentMap.KeyStorage.STANDARD);
+        StudentMap compactMap = new StudentMap(16, StudentMap.KeyStorage.COMPACT);
+        for (int i = 0; i < 1000; ++i){
+            Student student = new Student("Name " + i, LocalDate.of(2000, 1, 1 + i % 28), "details");
+            standardMap.put(student, i);
+            compactMap.put(student, i);
+        }
+
+        MemoryFootprint footprint = compactMap.memoryFootprint();
+
+        assertAll(
+                () -> assertThat(footprint.getAuxiliaryBytes()).isEqualTo(compactMap.getKeyPool().estimatedMemoryBytes()),
+                () -> assertThat(footprint.getTotalBytes())
+                        .isEqualTo(standardMap.estimatedMemoryBytes() + footprint.getAuxiliaryBytes()),
+                () -> assertThat(standardMap.memoryFootprint().getAuxiliaryBytes()).isZero()
+        );
+    }
+
+    @Test
+    public void studentMapCountsItsValueIndex_onceEnabled(){
+        StudentMap studentMap = new StudentMap();
+        for (int i = 0; i < 1000; ++i){
+            studentMap.put(new Student("Name " + i, LocalDate.of(2000, 1, 1 + i % 28), "details"), i);
+        }
+        long withoutIndex = studentMap.estimatedMemoryBytes();
+
+        studentMap.enableValueIndex();
+        MemoryFootprint footprint = studentMap.memoryFootprint();
+
+        assertAll(
+                () -> assertThat(footprint.getTotalBytes()).isGreaterThan(withoutIndex),
+                () -> assertThat(footprint.getAuxiliaryBytes())
+                        .isGreaterThanOrEqualTo(1000L * ObjectLayout.CURRENT.instanceSize(OrderStatisticIndex.Entry.class))
+        );
+    }
+
+    @Test
+    public void computesLayoutOfCompressedAndUncompressedReferences(){
+        ObjectLayout compressed = new ObjectLayout(true, true, 8);
+        ObjectLayout uncompressed = new ObjectLayout(false, false, 8);
+
+        assertAll(
+                () -> assertThat(compressed.referenceArraySize(16)).isEqualTo(80),
+                () -> assertThat(uncompressed.referenceArraySize(16)).isEqualTo(152),
+                () -> assertThat(compressed.instanceSize(GenericMap.Node.class)).isEqualTo(32),
+                () -> assertThat(uncompressed.instanceSize(GenericMap.Node.class)).isEqualTo(48),
+                () -> assertThat(compressed.primitiveArraySize(3, 8)).isEqualTo(40)
+        );
+    }
+}
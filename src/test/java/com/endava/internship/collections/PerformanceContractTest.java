@@ -0,0 +1,184 @@
+package com.endava.internship.collections;
+
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertAll;
+
+/**
+ * Contracts on the cost of map operations rather than their results: lookups and overwrites of warmed maps
+ * allocate nothing, and their time per operation does not grow with the size of the map beyond
+ * what cache misses explain.
+ */
+class PerformanceContractTest {
+
+    private static final int OPERATIONS = 200_000;
+    private static final int MEASUREMENTS = 5;
+    /**
+     * Allowed slowdown from the smallest to the largest map; a linear operation would be about 1000 times slower.
+     */
+    private static final double MAX_SLOWDOWN = 50;
+
+    private static final com.sun.management.ThreadMXBean THREADS =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    private static long allocatedBytes(){
+        return THREADS.getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    /**
+     * @return bytes allocated by the body beyond the ones allocated by the measurement itself
+     */
+    private static long allocatedBy(Runnable body){
+        long calibration = allocatedBytes();
+        calibration = allocatedBytes() - calibration;
+        long before = allocatedBytes();
+        body.run();
+        return allocatedBytes() - before - calibration;
+    }
+
+    private static Integer[] boxedKeys(int count){
+        Integer[] keys = new Integer[count];
+        for (int i = 0; i < count; ++i){
+            keys[i] = i * 31;
+        }
+        return keys;
+    }
+
+    /**
+     * @return indexes into the keys in random order, so lookups do not walk the table sequentially
+     */
+    private static int[] accessOrder(int keyCount){
+        Random random = new Random(42);
+        int[] order = new int[OPERATIONS];
+        for (int i = 0; i < OPERATIONS; ++i){
+            order[i] = random.nextInt(keyCount);
+        }
+        return order;
+    }
+
+    private static <K> long lookupAll(Map<K, Integer> map, K[] keys, int[] order){
+        long found = 0;
+        for (int index : order) {
+            Integer value = map.get(keys[index]);
+            if (value != null && map.containsKey(keys[index])){
+                ++found;
+            }
+        }
+        return found;
+    }
+
+    private static <K> void overwriteAll(Map<K, Integer> map, K[] keys, Integer[] values, int[] order){
+        for (int index : order) {
+            map.put(keys[index], values[index]);
+        }
+    }
+
+    /**
+     * @return the fastest of several timed runs of the lookups, in nanoseconds per operation
+     */
+    private static <K> double nanosPerLookup(Map<K, Integer> map, K[] keys){
+        int[] order = accessOrder(keys.length);
+        lookupAll(map, keys, order);
+        double best = Double.MAX_VALUE;
+        for (int measurement = 0; measurement < MEASUREMENTS; ++measurement){
+            long start = System.nanoTime();
+            long found = lookupAll(map, keys, order);
+            best = Math.min(best, (double) (System.nanoTime() - start) / OPERATIONS);
+            assertThat(found).isEqualTo(OPERATIONS);
+        }
+        return best;
+    }
+
+    @Test
+    public void genericMapLookupsAndOverwritesAllocateNothing(){
+        Integer[] keys = boxedKeys(10_000);
+        GenericMap<Integer, Integer> genericMap = new GenericMap<>();
+        for (Integer key : keys) {
+            genericMap.put(key, key);
+        }
+        int[] order = accessOrder(keys.length);
+        for (int warmup = 0; warmup < 5; ++warmup){
+            lookupAll(genericMap, keys, order);
+            overwriteAll(genericMap, keys, keys, order);
+        }
+
+        assertAll(
+                () -> assertThat(allocatedBy(() -> lookupAll(genericMap, keys, order))).isZero(),
+                () -> assertThat(allocatedBy(() -> overwriteAll(genericMap, keys, keys, order))).isZero()
+        );
+    }
+
+    @Test
+    public void studentMapLookupsAndOverwritesAllocateNothing(){
+        Student[] students = new Student[10_000];
+        Integer[] values = boxedKeys(students.length);
+        StudentMap studentMap = new StudentMap();
+        for (int i = 0; i < students.length; ++i){
+            students[i] = new Student("Student " + i, LocalDate.of(2000, 1, 1).plusDays(i % 365), "");
+            studentMap.put(students[i], values[i]);
+        }
+        int[] order = accessOrder(students.length);
+        for (int warmup = 0; warmup < 5; ++warmup){
+            lookupAll(studentMap, students, order);
+            overwriteAll(studentMap, students, values, order);
+        }
+
+        assertAll(
+                () -> assertThat(allocatedBy(() -> lookupAll(studentMap, students, order))).isZero(),
+                () -> assertThat(allocatedBy(() -> overwriteAll(studentMap, students, values, order))).isZero()
+        );
+    }
+
+    @Test
+    public void genericMapLookupTimeStaysFlat_from1KTo1MEntries(){
+        Integer[] keys = boxedKeys(1_000_000);
+        double smallest = 0;
+        double largest = 0;
+        for (int size = 1_000; size <= keys.length; size *= 10){
+            GenericMap<Integer, Integer> genericMap = new GenericMap<>();
+            for (int i = 0; i < size; ++i){
+                genericMap.put(keys[i], keys[i]);
+            }
+            Integer[] presentKeys = new Integer[size];
+            System.arraycopy(keys, 0, presentKeys, 0, size);
+            double nanos = nanosPerLookup(genericMap, presentKeys);
+            if (size == 1_000){
+                smallest = nanos;
+            }
+            largest = nanos;
+        }
+
+        assertThat(largest).isLessThan(Math.max(smallest, 1) * MAX_SLOWDOWN);
+    }
+
+    @Test
+    public void studentMapLookupTimeStaysFlat_from1KTo1MEntries(){
+        Student[] students = new Student[1_000_000];
+        for (int i = 0; i < students.length; ++i){
+            students[i] = new Student("Student " + i, LocalDate.of(2000, 1, 1).plusDays(i % 365), "");
+        }
+        double smallest = 0;
+        double largest = 0;
+        for (int size = 1_000; size <= students.length; size *= 10){
+            StudentMap studentMap = new StudentMap();
+            for (int i = 0; i < size; ++i){
+                studentMap.put(students[i], i);
+            }
+            Student[] presentStudents = new Student[size];
+            System.arraycopy(students, 0, presentStudents, 0, size);
+            double nanos = nanosPerLookup(studentMap, presentStudents);
+            if (size == 1_000){
+                smallest = nanos;
+            }
+            largest = nanos;
+        }
+
+        assertThat(largest).isLessThan(Math.max(smallest, 1) * MAX_SLOWDOWN);
+    }
+}
@@ -0,0 +1,105 @@
+package com.endava.internship.collections;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.time.LocalDate;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.junit.jupiter.api.Assertions.assertAll;
+
+class ReferenceGenericMapTest {
+
+    @ParameterizedTest
+    @EnumSource(ReferenceGenericMap.ReferenceStrength.class)
+    public void behavesAsMap_whileKeysAreReachable(ReferenceGenericMap.ReferenceStrength referenceStrength){
+        ReferenceGenericMap<Student, Integer> referenceMap = new ReferenceGenericMap<>(referenceStrength);
+        Student dummyStudent = new Student("Dummy", LocalDate.now(), "na");
+        int expectedLength = 100;
+        Student[] students = new Student[expectedLength];
+        for (int i = 0; i < expectedLength; ++i){
+            students[i] = new Student("Student " + i, LocalDate.now(), "");
+            referenceMap.put(students[i], i);
+        }
+        referenceMap.put(dummyStudent, 1);
+        referenceMap.put(null, 2);
+
+        assertAll(
+                () -> assertThat(referenceMap.size()).isEqualTo(expectedLength + 2),
+                () -> assertThat(referenceMap.get(new Student("Student 42", LocalDate.now(), ""))).isEqualTo(42),
+                () -> assertThat(referenceMap.get(null)).isEqualTo(2),
+                () -> assertThat(referenceMap.put(dummyStudent, 3)).isEqualTo(1),
+                () -> assertThat(referenceMap.remove(dummyStudent)).isEqualTo(3),
+                () -> assertThat(referenceMap.containsKey(dummyStudent)).isFalse(),
+                () -> assertThat(referenceMap.keySet()).hasSize(expectedLength + 1)
+        );
+    }
+
+    @Test
+    public void dropsEntries_whenKeysAreCollected() throws InterruptedException {
+        ReferenceGenericMap<Student, Integer> referenceMap = new ReferenceGenericMap<>(ReferenceGenericMap.ReferenceStrength.WEAK);
+        Student retained = new Student("Retained", LocalDate.now(), "");
+        referenceMap.put(retained, -1);
+        for (int i = 0; i < 1000; ++i){
+            referenceMap.put(new Student("Student " + i, LocalDate.now(), ""), i);
+        }
+
+        for (int attempt = 0; attempt < 50 && referenceMap.size() > 1; ++attempt){
+            System.gc();
+            Thread.sleep(10);
+        }
+
+        assertAll(
+                () -> assertThat(referenceMap.size()).isEqualTo(1),
+                () -> assertThat(referenceMap.get(retained)).isEqualTo(-1)
+        );
+    }
+
+    @Test
+    public void entrySet_writesThroughToMap(){
+        ReferenceGenericMap<String, Integer> referenceMap = new ReferenceGenericMap<>(ReferenceGenericMap.ReferenceStrength.WEAK);
+        String[] keys = new String[100];
+        for (int i = 0; i < keys.length; ++i){
+            keys[i] = "string " + i;
+            referenceMap.put(keys[i], i);
+        }
+
+        referenceMap.entrySet().removeIf(entry -> entry.getValue() % 2 == 0);
+        for (Map.Entry<String, Integer> entry : referenceMap.entrySet()) {
+            entry.setValue(-entry.getValue());
+        }
+
+        assertAll(
+                () -> assertThat(referenceMap.size()).isEqualTo(keys.length / 2),
+                () -> assertThat(referenceMap.containsKey(keys[42])).isFalse(),
+                () -> assertThat(referenceMap.get(keys[43])).isEqualTo(-43),
+                () -> assertThat(referenceMap.keySet()).contains(keys[99]),
+                () -> assertThat(referenceMap.values()).contains(-1).doesNotContain(1)
+        );
+    }
+
+    @Test
+    public void usesHashingStrategy_forKeys(){
+        ReferenceGenericMap<String, Integer> referenceMap = new ReferenceGenericMap<>(16,
+                ReferenceGenericMap.ReferenceStrength.SOFT, Hashing.caseInsensitive());
+        String key = "Dummy";
+        referenceMap.put(key, 1);
+        referenceMap.put(null, 2);
+
+        assertAll(
+                () -> assertThat(referenceMap.get("DUMMY")).isEqualTo(1),
+                () -> assertThat(referenceMap.get(null)).isEqualTo(2),
+                () -> assertThat(referenceMap.put("dummy", 3)).isEqualTo(1),
+                () -> assertThat(referenceMap.size()).isEqualTo(2)
+        );
+    }
+
+    @Test
+    public void throwsException_whenCreateWithNullReferenceStrength(){
+        assertThatExceptionOfType(IllegalArgumentException.class)
+                .isThrownBy(() -> new ReferenceGenericMap<String, Integer>(16, null));
+    }
+}
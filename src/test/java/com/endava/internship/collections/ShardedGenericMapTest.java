@@ -0,0 +1,96 @@
+package com.endava.internship.collections;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.junit.jupiter.api.Assertions.assertAll;
+
+class ShardedGenericMapTest {
+
+    @Test
+    public void spreadsKeysAcrossShards(){
+        ShardedGenericMap.Shard<String, Integer> first = ShardedGenericMap.local("first");
+        ShardedGenericMap.Shard<String, Integer> second = ShardedGenericMap.local("second");
+        ShardedGenericMap<String, Integer> shardedMap = new ShardedGenericMap<>(first, second);
+        int expectedLength = 1000;
+        for (int i = 0; i < expectedLength; ++i){
+            shardedMap.put("string " + i, i);
+        }
+
+        assertAll(
+                () -> assertThat(shardedMap.size()).isEqualTo(expectedLength),
+                () -> assertThat(first.size()).isBetween(300, 700),
+                () -> assertThat(second.size()).isEqualTo(expectedLength - first.size()),
+                () -> assertThat(shardedMap.get("string 42")).isEqualTo(42),
+                () -> assertThat(shardedMap.remove("string 42")).isEqualTo(42),
+                () -> assertThat(shardedMap.containsKey("string 42")).isFalse()
+        );
+    }
+
+    @Test
+    public void movesOnlyKeysWonByNewShard_whenShardAdded(){
+        ShardedGenericMap<String, Integer> shardedMap = new ShardedGenericMap<>(3);
+        int expectedLength = 3000;
+        for (int i = 0; i < expectedLength; ++i){
+            shardedMap.put("string " + i, i);
+        }
+        ShardedGenericMap.Shard<String, Integer> added = ShardedGenericMap.local("added");
+
+        shardedMap.addShard(added);
+
+        assertAll(
+                () -> assertThat(shardedMap.shardCount()).isEqualTo(4),
+                () -> assertThat(shardedMap.size()).isEqualTo(expectedLength),
+                () -> assertThat(added.size()).isBetween(500, 1000),
+                () -> assertThat(shardedMap.get("string 2999")).isEqualTo(2999),
+                () -> assertThat(shardedMap.entrySet()).hasSize(expectedLength)
+        );
+    }
+
+    @Test
+    public void isEmpty_whenCleared(){
+        ShardedGenericMap<String, Integer> shardedMap = new ShardedGenericMap<>(4);
+        shardedMap.put("dummy", 1);
+        shardedMap.put(null, 2);
+
+        shardedMap.clear();
+
+        assertThat(shardedMap.isEmpty()).isTrue();
+    }
+
+    @Test
+    public void throwsException_whenAddingShardWithDuplicateId(){
+        ShardedGenericMap<String, Integer> shardedMap = new ShardedGenericMap<>(2);
+
+        assertThatExceptionOfType(IllegalArgumentException.class)
+                .isThrownBy(() -> shardedMap.addShard(ShardedGenericMap.local("shard-0")));
+    }
+
+    @Test
+    public void throwsException_whenCreateWithDuplicateShardIds(){
+        ShardedGenericMap.Shard<String, Integer> first = ShardedGenericMap.local("same");
+        ShardedGenericMap.Shard<String, Integer> second = ShardedGenericMap.local("same");
+
+        assertThatExceptionOfType(IllegalArgumentException.class)
+                .isThrownBy(() -> new ShardedGenericMap<>(first, second));
+    }
+
+    @Test
+    public void containsValue_findsValueInAnyShard(){
+        ShardedGenericMap<String, Integer> shardedMap = new ShardedGenericMap<>(4);
+        for (int i = 0; i < 100; ++i){
+            shardedMap.put("string " + i, i);
+        }
+
+        assertAll(
+                () -> assertThat(shardedMap.containsValue(99)).isTrue(),
+                () -> assertThat(shardedMap.containsValue(100)).isFalse()
+        );
+    }
+
+    @Test
+    public void throwsException_whenCreateWithoutShards(){
+        assertThatExceptionOfType(IllegalArgumentException.class).isThrownBy(() -> new ShardedGenericMap<String, Integer>(0));
+    }
+}
@@ -0,0 +1,131 @@
+package com.endava.internship.collections;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.junit.jupiter.api.Assertions.assertAll;
+
+class SingleWriterGenericMapTest {
+
+    private static final int READERS = 4;
+
+    SingleWriterGenericMap<Integer, Integer> singleWriterMap;
+
+    @BeforeEach
+    void setUp() {
+        singleWriterMap = new SingleWriterGenericMap<>();
+    }
+
+    @Test
+    public void putGetAndRemoveWork(){
+        for (int i = 0; i < 100; ++i){
+            singleWriterMap.put(i, i);
+        }
+        singleWriterMap.put(42, -42);
+        singleWriterMap.remove(7);
+        singleWriterMap.put(null, 0);
+
+        assertAll(
+                () -> assertThat(singleWriterMap.size()).isEqualTo(100),
+                () -> assertThat(singleWriterMap.get(42)).isEqualTo(-42),
+                () -> assertThat(singleWriterMap.containsKey(7)).isFalse(),
+                () -> assertThat(singleWriterMap.get(null)).isZero(),
+                () -> assertThat(singleWriterMap.containsValue(99)).isTrue(),
+                () -> assertThat(singleWriterMap.keySet()).hasSize(100)
+        );
+    }
+
+    /**
+     * Keys are inserted in increasing order, so a reader that sees a key must also see every smaller one,
+     * including across the table swaps made while growing.
+     */
+    @Test
+    public void readersSeeInsertionsInOrder_whileTableGrows() throws InterruptedException {
+        int keys = 200_000;
+        AtomicBoolean writing = new AtomicBoolean(true);
+        AtomicReference<String> violation = new AtomicReference<>();
+        List<Thread> readers = new ArrayList<>();
+        for (int reader = 0; reader < READERS; ++reader){
+            Thread thread = new Thread(() -> {
+                int highestSeen = 0;
+                while (writing.get() && violation.get() == null){
+                    int key = highestSeen + 1;
+                    while (singleWriterMap.get(key) != null){
+                        ++key;
+                    }
+                    highestSeen = key - 1;
+                    for (int older = highestSeen; older > Math.max(0, highestSeen - 64); --older){
+                        Integer value = singleWriterMap.get(older);
+                        if (value == null || value != older){
+                            violation.set("Key " + older + " read as " + value + " after key " + highestSeen + " was seen");
+                        }
+                    }
+                }
+            });
+            thread.start();
+            readers.add(thread);
+        }
+
+        for (int key = 1; key <= keys; ++key){
+            singleWriterMap.put(key, key);
+        }
+        writing.set(false);
+        for (Thread reader : readers) {
+            reader.join(10_000);
+        }
+
+        assertAll(
+                () -> assertThat(violation.get()).isNull(),
+                () -> assertThat(singleWriterMap.size()).isEqualTo(keys)
+        );
+    }
+
+    @Test
+    public void readersNeverSeeForeignValues_whileEntriesAreRemovedAndRewritten() throws InterruptedException {
+        int keys = 1_000;
+        AtomicBoolean writing = new AtomicBoolean(true);
+        AtomicReference<String> violation = new AtomicReference<>();
+        List<Thread> readers = new ArrayList<>();
+        for (int reader = 0; reader < READERS; ++reader){
+            Thread thread = new Thread(() -> {
+                while (writing.get() && violation.get() == null){
+                    for (int key = 0; key < keys; ++key){
+                        Integer value = singleWriterMap.get(key);
+                        if (value != null && value != key && value != -key){
+                            violation.set("Key " + key + " read as " + value);
+                        }
+                    }
+                }
+            });
+            thread.start();
+            readers.add(thread);
+        }
+
+        for (int round = 0; round < 200; ++round){
+            for (int key = 0; key < keys; ++key){
+                singleWriterMap.put(key, round % 2 == 0 ? key : -key);
+            }
+            for (int key = round % 3; key < keys; key += 3){
+                singleWriterMap.remove(key);
+            }
+        }
+        writing.set(false);
+        for (Thread reader : readers) {
+            reader.join(10_000);
+        }
+
+        assertThat(violation.get()).isNull();
+    }
+
+    @Test
+    public void throwsException_whenCreateWithNegativeCapacity(){
+        assertThatExceptionOfType(IllegalArgumentException.class).isThrownBy(() -> new SingleWriterGenericMap<Integer, Integer>(-1));
+    }
+}
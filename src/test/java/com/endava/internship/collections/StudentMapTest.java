@@ -257,6 +257,138 @@ class StudentMapTest {
 
         assertThat(studentMap.size()).isEqualTo(expectedLength);
     }
+
+    @Test
+    public void compactStorage_returnsEqualStudentsSharingNameAndDate(){
+        StudentMap compactMap = new StudentMap(16, StudentMap.KeyStorage.COMPACT);
+        LocalDate dateOfBirth = LocalDate.of(2000, 1, 1);
+        Student first = new Student(new String("Name"), LocalDate.of(2000, 1, 1), "first");
+        Student second = new Student(new String("Name"), dateOfBirth, "second");
+        compactMap.put(first, 1);
+        compactMap.put(second, 2);
+        compactMap.put(new Student("Other", dateOfBirth, ""), 3);
+
+        assertAll(
+                () -> assertThat(compactMap.size()).isEqualTo(2),
+                () -> assertThat(compactMap.get(first)).isEqualTo(2),
+                () -> assertThat(compactMap.keySet()).contains(first),
+                () -> assertThat(compactMap.keySet())
+                        .extracting(Student::getDateOfBirth)
+                        .allMatch(date -> date == compactMap.keySet().iterator().next().getDateOfBirth()),
+                () -> assertThat(compactMap.keySet())
+                        .filteredOn(student -> student.equals(first))
+                        .extracting(Student::getDetails)
+                        .containsExactly("first")
+        );
+    }
+
+    @Test
+    public void compactStorageWithoutDetails_dropsDetails(){
+        StudentMap compactMap = new StudentMap(16, StudentMap.KeyStorage.COMPACT_WITHOUT_DETAILS);
+        compactMap.put(dummyStudent, 1);
+
+        assertAll(
+                () -> assertThat(compactMap.containsKey(dummyStudent)).isTrue(),
+                () -> assertThat(compactMap.keySet()).containsExactly(dummyStudent),
+                () -> assertThat(compactMap.keySet().iterator().next().getDetails()).isNull()
+        );
+    }
+
+    @Test
+    public void compactStorage_releasesPooledNamesAndDates_whenKeysAreRemoved(){
+        StudentMap compactMap = new StudentMap(16, StudentMap.KeyStorage.COMPACT);
+        Student kept = new Student("Kept", LocalDate.of(2000, 1, 1), "");
+        compactMap.put(kept, 0);
+        for (int i = 0; i < 100_000; ++i){
+            Student student = new Student("Student " + i, LocalDate.ofEpochDay(i), "");
+            compactMap.put(student, i);
+            compactMap.remove(student);
+        }
+        compactMap.put(new Student(new String("Kept"), LocalDate.of(2000, 1, 1), ""), 1);
+        compactMap.entrySet().removeIf(entry -> entry.getValue() == 1);
+
+        assertAll(
+                () -> assertThat(compactMap.size()).isZero(),
+                () -> assertThat(compactMap.getKeyPool().pooledNames()).isZero(),
+                () -> assertThat(compactMap.getKeyPool().pooledDates()).isZero()
+        );
+    }
+
+    @Test
+    public void throwsException_whenCreateWithNullKeyStorage(){
+        assertThatExceptionOfType(IllegalArgumentException.class).isThrownBy(() -> new StudentMap(16, null));
+    }
+
+    private List<Student> putScoredStudents(int count){
+        List<Student> students = new ArrayList<>();
+        for (int i = 0; i < count; ++i){
+            Student student = new Student("Student " + i, LocalDate.of(2000, 1, 1), "");
+            students.add(student);
+            studentMap.put(student, i);
+        }
+        return students;
+    }
+
+    @Test
+    public void valueIndexAnswersTopKRankAndPercentile(){
+        studentMap.enableValueIndex();
+        List<Student> students = putScoredStudents(100);
+
+        assertAll(
+                () -> assertThat(studentMap.topK(3)).containsExactly(students.get(99), students.get(98), students.get(97)),
+                () -> assertThat(studentMap.topK(1000)).hasSize(100),
+                () -> assertThat(studentMap.rankOf(students.get(99))).isEqualTo(1),
+                () -> assertThat(studentMap.rankOf(students.get(0))).isEqualTo(100),
+                () -> assertThat(studentMap.rankOf(dummyStudent)).isEqualTo(-1),
+                () -> assertThat(studentMap.percentile(95)).isEqualTo(students.get(94)),
+                () -> assertThat(studentMap.percentile(0)).isEqualTo(students.get(0)),
+                () -> assertThat(studentMap.percentile(100)).isEqualTo(students.get(99))
+        );
+    }
+
+    @Test
+    public void valueIndexFollowsRewritesAndRemovals(){
+        List<Student> students = putScoredStudents(100);
+        studentMap.enableValueIndex();
+
+        studentMap.put(students.get(0), 1000);
+        studentMap.remove(students.get(99));
+        studentMap.entrySet().removeIf(entry -> entry.getValue() == 98);
+        studentMap.put(students.get(50), null);
+
+        assertAll(
+                () -> assertThat(studentMap.topK(3)).containsExactly(students.get(0), students.get(97), students.get(96)),
+                () -> assertThat(studentMap.rankOf(students.get(1))).isEqualTo(97),
+                () -> assertThat(studentMap.rankOf(students.get(50))).isEqualTo(-1)
+        );
+    }
+
+    @Test
+    public void valueIndexRanksEqualValuesTogether(){
+        studentMap.enableValueIndex();
+        Student other = new Student("Other", LocalDate.of(2001, 1, 1), "");
+        studentMap.put(dummyStudent, 5);
+        studentMap.put(other, 5);
+
+        assertAll(
+                () -> assertThat(studentMap.rankOf(dummyStudent)).isEqualTo(1),
+                () -> assertThat(studentMap.rankOf(other)).isEqualTo(1),
+                () -> assertThat(studentMap.topK(2)).containsExactlyInAnyOrder(dummyStudent, other)
+        );
+    }
+
+    @Test
+    public void throwsException_whenQueryWithoutValueIndex(){
+        assertThatExceptionOfType(IllegalStateException.class).isThrownBy(() -> studentMap.topK(1));
+    }
+
+    @Test
+    public void throwsException_whenPercentileIsOutOfRange(){
+        studentMap.enableValueIndex();
+
+        assertThatExceptionOfType(IllegalArgumentException.class).isThrownBy(() -> studentMap.percentile(101));
+    }
+
     public static Stream<Arguments> provideStudentList(){
         List<Student> studentList = new ArrayList<>();
         for(int i = 0; i < 5; ++i){
@@ -0,0 +1,112 @@
+package com.endava.internship.collections;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.junit.jupiter.api.Assertions.assertAll;
+
+class StudentMultiMapTest {
+
+    StudentMultiMap gradeMap;
+    Student dummyStudent;
+
+    @BeforeEach
+    void setUp() {
+        gradeMap = new StudentMultiMap();
+        dummyStudent = new Student("Dummy", LocalDate.of(2000, 1, 1), "na");
+    }
+
+    @Test
+    public void keepsEveryValueOfStudent_whenArrayGrows(){
+        StudentMultiMap.Values grades = gradeMap.valuesFor(dummyStudent);
+        for (int grade = 1; grade <= 10; ++grade){
+            gradeMap.putValue(dummyStudent, grade);
+        }
+
+        assertAll(
+                () -> assertThat(grades.size()).isEqualTo(10),
+                () -> assertThat(grades.get(9)).isEqualTo(10),
+                () -> assertThat(grades.contains(5)).isTrue(),
+                () -> assertThat(grades.toArray()).containsExactly(1, 2, 3, 4, 5, 6, 7, 8, 9, 10),
+                () -> assertThat(gradeMap.size()).isEqualTo(10)
+        );
+    }
+
+    @Test
+    public void findsValuesByEqualStudent(){
+        gradeMap.putValue(dummyStudent, 9);
+
+        Student equalStudent = new Student("Dummy", LocalDate.of(2000, 1, 1), "other details");
+
+        assertThat(gradeMap.valuesFor(equalStudent).toArray()).containsExactly(9);
+    }
+
+    @Test
+    public void removeValueRemovesFirstEqualValue(){
+        gradeMap.putValue(dummyStudent, 7);
+        gradeMap.putValue(dummyStudent, 8);
+        gradeMap.putValue(dummyStudent, 7);
+
+        boolean removed = gradeMap.removeValue(dummyStudent, 7);
+
+        assertAll(
+                () -> assertThat(removed).isTrue(),
+                () -> assertThat(gradeMap.valuesFor(dummyStudent).toArray()).containsExactly(8, 7),
+                () -> assertThat(gradeMap.removeValue(dummyStudent, 10)).isFalse()
+        );
+    }
+
+    @Test
+    public void dropsStudent_whenLastValueIsRemoved(){
+        gradeMap.putValue(dummyStudent, 7);
+        gradeMap.removeValue(dummyStudent, 7);
+
+        assertAll(
+                () -> assertThat(gradeMap.containsKey(dummyStudent)).isFalse(),
+                () -> assertThat(gradeMap.isEmpty()).isTrue(),
+                () -> assertThat(gradeMap.valuesFor(dummyStudent).size()).isZero()
+        );
+    }
+
+    @Test
+    public void forEachVisitsEveryPair(){
+        gradeMap.putValue(dummyStudent, 7);
+        gradeMap.putValue(dummyStudent, 8);
+        List<Integer> visited = new ArrayList<>();
+
+        gradeMap.forEach((student, grade) -> visited.add(grade));
+
+        assertThat(visited).containsExactly(7, 8);
+    }
+
+    @Test
+    public void usesLessMemoryThanNestedLists(){
+        GenericMap<Student, List<Integer>> nestedMap = new GenericMap<>();
+        long listBytes = 0;
+        for (int i = 0; i < 100; ++i){
+            Student student = new Student("Student " + i, LocalDate.of(2000, 1, 1), "");
+            List<Integer> grades = new ArrayList<>();
+            for (int grade = 0; grade < 8; ++grade){
+                gradeMap.putValue(student, 1000 + grade);
+                grades.add(1000 + grade);
+            }
+            nestedMap.put(student, grades);
+            listBytes += ObjectLayout.CURRENT.instanceSize(ArrayList.class)
+                    + ObjectLayout.CURRENT.referenceArraySize(10)
+                    + 8 * ObjectLayout.CURRENT.instanceSize(Integer.class);
+        }
+
+        assertThat(gradeMap.estimatedMemoryBytes()).isLessThan(nestedMap.estimatedMemoryBytes() + listBytes);
+    }
+
+    @Test
+    public void throwsException_whenForEachWithNullAction(){
+        assertThatExceptionOfType(NullPointerException.class).isThrownBy(() -> gradeMap.forEach(null));
+    }
+}
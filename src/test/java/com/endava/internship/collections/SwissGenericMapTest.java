@@ -0,0 +1,86 @@
+package com.endava.internship.collections;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.junit.jupiter.api.Assertions.assertAll;
+
+class SwissGenericMapTest {
+
+    SwissGenericMap<String, Integer> swissMap;
+    String dummy = "dummy";
+
+    @BeforeEach
+    void setUp() {
+        swissMap = new SwissGenericMap<>();
+    }
+
+    @Test
+    public void throwsException_whenCreateWithNegativeInitialCapacity(){
+        assertThatExceptionOfType(IllegalArgumentException.class).isThrownBy(() -> new SwissGenericMap<String, Integer>(-1));
+    }
+
+    @Test
+    public void shouldPutGetAndRemoveNullKey(){
+        swissMap.put(null, 1);
+
+        assertAll(
+                () -> assertThat(swissMap.get(null)).isEqualTo(1),
+                () -> assertThat(swissMap.containsKey(null)).isTrue(),
+                () -> assertThat(swissMap.remove(null)).isEqualTo(1),
+                () -> assertThat(swissMap.containsKey(null)).isFalse()
+        );
+    }
+
+    @Test
+    public void shouldReturnLastValue_whenAddSameKeySecondTime(){
+        swissMap.put(dummy, 1);
+
+        assertAll(
+                () -> assertThat(swissMap.put(dummy, 2)).isEqualTo(1),
+                () -> assertThat(swissMap.size()).isEqualTo(1),
+                () -> assertThat(swissMap.containsValue(2)).isTrue()
+        );
+    }
+
+    @Test
+    public void isEmpty_whenCleared(){
+        for (int i = 0; i < 100; ++i){
+            swissMap.put("string " + i, i);
+        }
+
+        swissMap.clear();
+
+        assertAll(
+                () -> assertThat(swissMap.isEmpty()).isTrue(),
+                () -> assertThat(swissMap.get("string 1")).isNull()
+        );
+    }
+
+    @Test
+    public void matchesHashMap_underRandomPutsAndRemoves(){
+        Map<Integer, Integer> expected = new HashMap<>();
+        SwissGenericMap<Integer, Integer> map = new SwissGenericMap<>();
+        Random random = new Random(42);
+        for (int i = 0; i < 200_000; ++i){
+            Integer key = random.nextInt(5_000);
+            if (random.nextInt(3) == 0){
+                assertThat(map.remove(key)).isEqualTo(expected.remove(key));
+            } else {
+                assertThat(map.put(key, i)).isEqualTo(expected.put(key, i));
+            }
+        }
+
+        assertAll(
+                () -> assertThat(map.size()).isEqualTo(expected.size()),
+                () -> assertThat(map.entrySet()).isEqualTo(expected.entrySet()),
+                () -> assertThat(map.get(-1)).isNull()
+        );
+    }
+}
@@ -0,0 +1,76 @@
+package com.endava.internship.collections.workload;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.assertj.core.api.Assertions.within;
+import static org.junit.jupiter.api.Assertions.assertAll;
+
+class LatencyHistogramTest {
+
+    LatencyHistogram histogram;
+
+    @BeforeEach
+    void setUp() {
+        histogram = new LatencyHistogram();
+    }
+
+    @Test
+    public void reportsPercentilesWithinBucketPrecision(){
+        for (long nanos = 1; nanos <= 100_000; ++nanos){
+            histogram.record(nanos);
+        }
+
+        assertAll(
+                () -> assertThat(histogram.getCount()).isEqualTo(100_000),
+                () -> assertThat((double) histogram.getValueAtPercentile(50)).isCloseTo(50_000, within(50_000 * 0.07)),
+                () -> assertThat((double) histogram.getValueAtPercentile(99)).isCloseTo(99_000, within(99_000 * 0.07)),
+                () -> assertThat(histogram.getValueAtPercentile(100)).isEqualTo(100_000),
+                () -> assertThat(histogram.getMax()).isEqualTo(100_000),
+                () -> assertThat(histogram.getMean()).isEqualTo(50_000.5)
+        );
+    }
+
+    @Test
+    public void keepsSmallValuesExact(){
+        histogram.record(3);
+        histogram.record(7);
+
+        assertAll(
+                () -> assertThat(histogram.getValueAtPercentile(50)).isEqualTo(3),
+                () -> assertThat(histogram.getValueAtPercentile(100)).isEqualTo(7),
+                () -> assertThat(histogram.getMin()).isEqualTo(3)
+        );
+    }
+
+    @Test
+    public void bucketBoundsAreContiguous(){
+        for (int index = 0; index < LatencyHistogram.bucketIndex(Long.MAX_VALUE); ++index){
+            long lowerBound = LatencyHistogram.bucketLowerBound(index);
+            assertThat(LatencyHistogram.bucketIndex(lowerBound)).isEqualTo(index);
+            assertThat(LatencyHistogram.bucketIndex(LatencyHistogram.bucketLowerBound(index + 1) - 1)).isEqualTo(index);
+        }
+    }
+
+    @Test
+    public void mergesOtherHistogram(){
+        LatencyHistogram other = new LatencyHistogram();
+        histogram.record(10);
+        other.record(1_000);
+
+        histogram.add(other);
+
+        assertAll(
+                () -> assertThat(histogram.getCount()).isEqualTo(2),
+                () -> assertThat(histogram.getMax()).isEqualTo(1_000),
+                () -> assertThat(histogram.getMin()).isEqualTo(10)
+        );
+    }
+
+    @Test
+    public void throwsException_whenPercentileIsOutOfRange(){
+        assertThatExceptionOfType(IllegalArgumentException.class).isThrownBy(() -> histogram.getValueAtPercentile(-1));
+    }
+}
@@ -0,0 +1,165 @@
+package com.endava.internship.collections.workload;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.junit.jupiter.api.Assertions.assertAll;
+
+class WorkloadDriverTest {
+
+    @Test
+    public void runsEveryYcsbWorkloadAgainstEveryVariant(){
+        for (MapVariant variant : MapVariant.values()) {
+            for (String letter : Arrays.asList("A", "B", "C", "D", "E", "F")) {
+                WorkloadReport report = new WorkloadDriver(variant, 2, 1).run(WorkloadMix.ycsb(letter), 1_000, 2_001);
+
+                assertAll(
+                        () -> assertThat(report.getOperationCount()).isEqualTo(2_001),
+                        () -> assertThat(report.getThroughput()).isPositive(),
+                        () -> assertThat(report.getOverall().getValueAtPercentile(50))
+                                .isLessThanOrEqualTo(report.getOverall().getValueAtPercentile(99.9))
+                );
+            }
+        }
+    }
+
+    @Test
+    public void followsProportionsOfMix(){
+        WorkloadReport report = new WorkloadDriver(MapVariant.GENERIC_MAP, 1, 1).run(WorkloadMix.ycsbB(), 1_000, 10_000);
+
+        assertAll(
+                () -> assertThat(report.getHistogram(Operation.READ).getCount()).isBetween(9_300L, 9_700L),
+                () -> assertThat(report.getHistogram(Operation.UPDATE).getCount()).isBetween(300L, 700L),
+                () -> assertThat(report.getHistogram(Operation.DELETE).getCount()).isZero()
+        );
+    }
+
+    @Test
+    public void zipfianDistributionFavoursFewKeys(){
+        KeyChooser chooser = KeyDistribution.ZIPFIAN.newChooser(new Random(1));
+        int[] hits = new int[1_000];
+        for (int i = 0; i < 100_000; ++i){
+            ++hits[(int) chooser.nextKey(hits.length)];
+        }
+        int[] sorted = hits.clone();
+        Arrays.sort(sorted);
+        int topTen = 0;
+        for (int i = sorted.length - 10; i < sorted.length; ++i){
+            topTen += sorted[i];
+        }
+
+        assertThat(topTen).isGreaterThan(10_000);
+    }
+
+    @Test
+    public void zipfianDistributionKeepsHottestKey_whileRecordsAreInserted(){
+        KeyChooser chooser = KeyDistribution.ZIPFIAN.newChooser(new Random(1));
+        int initialRecords = 1_000;
+        int[] initialHits = new int[initialRecords];
+        for (int i = 0; i < 100_000; ++i){
+            ++initialHits[(int) chooser.nextKey(initialRecords)];
+        }
+        int[] growingHits = new int[2 * initialRecords];
+        for (int recordCount = initialRecords; recordCount < growingHits.length; ++recordCount){
+            for (int i = 0; i < 100; ++i){
+                ++growingHits[(int) chooser.nextKey(recordCount)];
+            }
+        }
+
+        assertThat(indexOfMax(growingHits)).isEqualTo(indexOfMax(initialHits));
+    }
+
+    private static int indexOfMax(int[] values){
+        int max = 0;
+        for (int i = 1; i < values.length; ++i){
+            if (values[i] > values[max]){
+                max = i;
+            }
+        }
+        return max;
+    }
+
+    @Test
+    public void latestDistributionFavoursNewestKeys(){
+        KeyChooser chooser = KeyDistribution.LATEST.newChooser(new Random(1));
+        int newest = 0;
+        for (int i = 0; i < 10_000; ++i){
+            if (chooser.nextKey(1_000) >= 990){
+                ++newest;
+            }
+        }
+
+        assertThat(newest).isGreaterThan(3_000);
+    }
+
+    @Test
+    public void replaysRecordedTrace(@TempDir Path directory) throws IOException {
+        Path traceFile = directory.resolve("trace.txt");
+        Files.write(traceFile, Arrays.asList(
+                "# recorded operations",
+                "INSERT 5 50",
+                "READ 5",
+                "",
+                "update 5 51",
+                "SCAN 0 10",
+                "DELETE 5"), StandardCharsets.UTF_8);
+
+        List<TraceRecord> trace = TraceRecord.read(traceFile);
+        WorkloadReport report = new WorkloadDriver(MapVariant.STUDENT_MAP, 1, 1).replay(trace, 0, "trace");
+
+        assertAll(
+                () -> assertThat(trace).hasSize(5),
+                () -> assertThat(report.getOperationCount()).isEqualTo(5),
+                () -> assertThat(report.getHistogram(Operation.SCAN).getCount()).isEqualTo(1)
+        );
+    }
+
+    @Test
+    public void writesCsvAndJson(){
+        WorkloadReport report = new WorkloadDriver(MapVariant.HASH_MAP, 1, 1).run(WorkloadMix.ycsbA(), 100, 1_000);
+
+        String[] csvLines = report.toCsv().split("\n");
+        String json = report.toJson();
+
+        assertAll(
+                () -> assertThat(csvLines).hasSize(4),
+                () -> assertThat(csvLines[0]).isEqualTo(WorkloadReport.CSV_HEADER),
+                () -> assertThat(csvLines[3]).startsWith("HASH_MAP,A,1,ALL,1000,"),
+                () -> assertThat(json).startsWith("{\"variant\":\"HASH_MAP\",\"workload\":\"A\"")
+                        .contains("\"READ\":{\"count\":", "\"p99_9Nanos\":").endsWith("}}")
+        );
+    }
+
+    @Test
+    public void quotesWorkloadNameInCsv(){
+        List<TraceRecord> trace = Arrays.asList(new TraceRecord(Operation.INSERT, 1, 10));
+        WorkloadReport report = new WorkloadDriver(MapVariant.GENERIC_MAP, 1, 1).replay(trace, 0, "trace:a,\"b\".txt");
+
+        assertThat(report.toCsvRows()).startsWith("GENERIC_MAP,\"trace:a,\"\"b\"\".txt\",1,INSERT,1,");
+    }
+
+    @Test
+    public void throwsException_whenTraceLineIsMalformed(@TempDir Path directory) throws IOException {
+        Path traceFile = directory.resolve("trace.txt");
+        Files.write(traceFile, Arrays.asList("READ 1", "JUMP 2"), StandardCharsets.UTF_8);
+
+        assertThatExceptionOfType(IllegalArgumentException.class).isThrownBy(() -> TraceRecord.read(traceFile))
+                .withMessageContaining("line 2");
+    }
+
+    @Test
+    public void throwsException_whenCreateWithoutThreads(){
+        assertThatExceptionOfType(IllegalArgumentException.class)
+                .isThrownBy(() -> new WorkloadDriver(MapVariant.GENERIC_MAP, 0, 1));
+    }
+}